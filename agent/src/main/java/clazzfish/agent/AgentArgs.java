@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import clazzfish.core.Config;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The AgentArgs are the parsed arguments of the {@link ClasspathAgent}.
+ * The arguments are given as comma separated list of key-value pairs:
+ * <pre>
+ * -javaagent:clazzfish-agent.jar=dump=/tmp/stat.csv,interval=PT5M,mode=snapshot
+ * </pre>
+ * The following keys are supported:
+ * <ul>
+ *     <li>dump: file or URI where the statistic is dumped to
+ *         (see {@link Config#DUMP_URI})</li>
+ *     <li>interval: interval for periodic dumps in seconds or as ISO-8601
+ *         duration (see {@link Config#DUMP_INTERVAL})</li>
+ *     <li>exclude: pattern of classes which are filtered out
+ *         (see {@link Config#PATTERN_EXCLUDE})</li>
+ *     <li>mode: "transformer" (default) to record each loaded class or
+ *         "snapshot" to ask for the loaded classes at the end</li>
+ *     <li>async: "true" (default) to scan the classpath in background at
+ *         start, "false" to scan it when it is needed (e.g. at shutdown)</li>
+ *     <li>parallelism: number of threads to scan the classpath
+ *         (see {@link Config#DIGGER_PARALLELISM})</li>
+ * </ul>
+ * Arguments which are not given are taken from {@link Config#DEFAULT}.
+ * Unknown keys or invalid values are logged and ignored, because a wrong
+ * argument should not stop the application.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class AgentArgs {
+
+    private static final Logger log = Logger.getLogger(AgentArgs.class.getName());
+    /** Arguments are separated by a comma which is followed by a key. */
+    private static final Pattern SEPARATOR = Pattern.compile(",(?=\\s*[a-zA-Z]+\\s*=)");
+
+    /** The mode how the loaded classes are collected. */
+    public enum Mode {
+        /** Each class is recorded when it is loaded (see {@link ClassLoadRecorder}). */
+        TRANSFORMER,
+        /** The loaded classes are collected when they are needed (e.g. at shutdown). */
+        SNAPSHOT
+    }
+
+    private final String args;
+    private URI dumpURI;
+    private Duration interval;
+    private String exclude;
+    private Mode mode = Mode.TRANSFORMER;
+    private boolean async = true;
+    private int parallelism;
+
+    private AgentArgs(String args) {
+        this.args = args;
+    }
+
+    /**
+     * Parses the given agent arguments.
+     *
+     * @param args e.g. "dump=/tmp/stat.csv,mode=snapshot" (may be null)
+     * @return the parsed arguments
+     */
+    public static AgentArgs parse(String args) {
+        AgentArgs agentArgs = new AgentArgs(args);
+        if ((args == null) || args.isBlank()) {
+            return agentArgs;
+        }
+        for (String arg : SEPARATOR.split(args)) {
+            int i = arg.indexOf('=');
+            if (i < 0) {
+                log.log(Level.WARNING, "Argument \"{0}\" is ignored (expected: key=value).", arg);
+                continue;
+            }
+            String key = arg.substring(0, i).trim().toLowerCase(Locale.ROOT);
+            String value = arg.substring(i + 1).trim();
+            try {
+                agentArgs.set(key, value);
+            } catch (IllegalArgumentException ex) {
+                log.log(Level.WARNING, "Argument \"{0}\" is ignored ({1}).", new Object[] { arg, ex.getMessage() });
+            }
+        }
+        return agentArgs;
+    }
+
+    private void set(String key, String value) {
+        switch (key) {
+            case "dump":
+                dumpURI = toURI(value);
+                break;
+            case "interval":
+                interval = Config.toDuration(value);
+                break;
+            case "exclude":
+                Pattern.compile(value);
+                exclude = value;
+                break;
+            case "mode":
+                mode = Mode.valueOf(value.toUpperCase(Locale.ROOT));
+                break;
+            case "async":
+                async = Boolean.parseBoolean(value);
+                break;
+            case "parallelism":
+                int n = Integer.parseInt(value);
+                if (n < 1) {
+                    throw new IllegalArgumentException("parallelism must be positive");
+                }
+                parallelism = n;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown key '" + key + "'");
+        }
+    }
+
+    private static URI toURI(String value) {
+        if (value.matches("[a-zA-Z][a-zA-Z0-9+.-]+:.*")) {
+            return URI.create(value);
+        } else {
+            return new File(value).getAbsoluteFile().toURI();
+        }
+    }
+
+    /**
+     * Gets the dump URI.
+     *
+     * @return the dump URI or {@link Config#getDumpURI()} if not given
+     */
+    public URI getDumpURI() {
+        return (dumpURI == null) ? Config.DEFAULT.getDumpURI() : dumpURI;
+    }
+
+    /**
+     * Gets the interval for periodic dumps.
+     *
+     * @return the interval or {@link Config#getDumpInterval()} if not given
+     */
+    public Duration getInterval() {
+        return (interval == null) ? Config.DEFAULT.getDumpInterval() : interval;
+    }
+
+    /**
+     * Gets the pattern of the excluded classes.
+     *
+     * @return the pattern or null if not given
+     */
+    public String getExclude() {
+        return exclude;
+    }
+
+    /**
+     * Gets the mode how the loaded classes are collected.
+     *
+     * @return the mode ({@link Mode#TRANSFORMER} by default)
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Returns true if the classpath should be scanned in background at
+     * start.
+     *
+     * @return true (default) or false
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Gets the number of threads to scan the classpath.
+     *
+     * @return the parallelism or {@link Config#getDiggerParallelism()} if
+     *         not given
+     */
+    public int getParallelism() {
+        return (parallelism == 0) ? Config.DEFAULT.getDiggerParallelism() : parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return (args == null) ? "" : args;
+    }
+
+}
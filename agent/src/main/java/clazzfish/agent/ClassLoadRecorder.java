@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import clazzfish.core.ClassLoading;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ClassLoadRecorder is a {@link ClassFileTransformer} which does not
+ * transform anything. It only records the name of each class when it is
+ * defined, together with the time and the classloader. So the loaded classes
+ * are known at any time without calling
+ * {@link Instrumentation#getAllLoadedClasses()} and building the names of
+ * all classes again.
+ * <p>
+ * Classes which were loaded before the recorder was registered (e.g. if the
+ * agent is attached later) are recorded with the registration time.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ClassLoadRecorder implements ClassFileTransformer, ClassLoading {
+
+    private final Instrumentation instrumentation;
+    private final Map<String, LoadEvent> loadedClasses = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a recorder which records the classes which are already loaded.
+     * To record the classes which are loaded later the recorder must be
+     * added as transformer to the given instrumentation.
+     *
+     * @param instrumentation the instrumentation of the agent
+     */
+    public ClassLoadRecorder(Instrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+        long now = System.currentTimeMillis();
+        Class<?>[] classes = instrumentation.getAllLoadedClasses();
+        if (classes != null) {
+            for (Class<?> c : classes) {
+                if ((c != null) && !c.isArray()) {
+                    record(c.getName(), c.getClassLoader(), now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the class which is defined and returns null, i.e. the class
+     * is not transformed.
+     *
+     * @param loader              the defining classloader (null for the
+     *                            bootstrap classloader)
+     * @param className           class name in internal form (e.g.
+     *                            "java/util/List")
+     * @param classBeingRedefined null for new classes
+     * @param protectionDomain    the protection domain (not used)
+     * @param classfileBuffer     the class file (not used)
+     * @return always null
+     */
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        if ((className != null) && (classBeingRedefined == null)) {
+            record(className.replace('/', '.'), loader, System.currentTimeMillis());
+        }
+        return null;
+    }
+
+    private void record(String classname, ClassLoader loader, long time) {
+        if (!loadedClasses.containsKey(classname)) {
+            loadedClasses.putIfAbsent(classname, new LoadEvent(time, getName(loader)));
+        }
+    }
+
+    private static String getName(ClassLoader loader) {
+        if (loader == null) {
+            return "bootstrap";
+        }
+        String name = loader.getName();
+        return (name == null) ? loader.getClass().getName() : name;
+    }
+
+    /**
+     * Returns the classes which were loaded. This method asks the
+     * instrumentation.
+     *
+     * @return the loaded classes
+     */
+    @Override
+    public Class<?>[] getLoadedClasses() {
+        return instrumentation.getAllLoadedClasses();
+    }
+
+    /**
+     * Returns the names of the recorded classes (unsorted).
+     *
+     * @return the classnames as string array
+     */
+    @Override
+    public String[] getLoadedClassnames() {
+        return loadedClasses.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Returns the number of recorded classes.
+     *
+     * @return number of loaded classes
+     */
+    public int size() {
+        return loadedClasses.size();
+    }
+
+    /**
+     * Gets the load event of the given class.
+     *
+     * @param classname name of the class
+     * @return the load event or null if the class was not loaded
+     */
+    public LoadEvent getLoadEvent(String classname) {
+        return loadedClasses.get(classname);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " (" + size() + " classes)";
+    }
+
+
+
+    /**
+     * The LoadEvent contains the time when a class was loaded first and the
+     * name of the defining classloader.
+     */
+    public static final class LoadEvent {
+
+        private final long time;
+        private final String classloader;
+
+        private LoadEvent(long time, String classloader) {
+            this.time = time;
+            this.classloader = classloader;
+        }
+
+        /**
+         * Gets the time when the class was loaded first.
+         *
+         * @return the load time
+         */
+        public Instant getTime() {
+            return Instant.ofEpochMilli(time);
+        }
+
+        /**
+         * Gets the name of the defining classloader.
+         *
+         * @return e.g. "app" or "bootstrap"
+         */
+        public String getClassloader() {
+            return classloader;
+        }
+
+        @Override
+        public String toString() {
+            return getTime() + " by " + classloader;
+        }
+
+    }
+
+}
@@ -18,10 +18,14 @@
 
 package clazzfish.agent;
 
+import clazzfish.core.ClassFilter;
+import clazzfish.core.ClassLoading;
 import clazzfish.core.Config;
 import clazzfish.core.Digger;
+import clazzfish.core.jmx.ClassDiagnostic;
 import clazzfish.core.spi.FileXPorter;
 import clazzfish.core.stat.ClazzStatistic;
+import clazzfish.core.util.ClazzFishExecutor;
 import clazzfish.core.util.ShutdownHook;
 
 import javax.management.*;
@@ -29,6 +33,7 @@ import java.io.*;
 import java.lang.instrument.Instrumentation;
 import java.lang.management.ManagementFactory;
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Set;
 import java.util.SortedSet;
@@ -58,8 +63,12 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
     private static final Logger log = Logger.getLogger(ClasspathAgent.class.getName());
     private static final ClasspathAgent INSTANCE;
     private static Instrumentation instrumentation;
+    private static ClassLoadRecorder recorder;
+    private static DumpScheduler scheduler;
     private static String args;
-    private static final Digger digger = new Digger();
+    private static AgentArgs agentArgs = AgentArgs.parse(null);
+    private static final ClassFilter CLASS_FILTER = ClassFilter.DEFAULT;
+    private static Digger digger;
     private URI dumpURI;
 
     static {
@@ -71,6 +80,7 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
         } catch (MBeanRegistrationException | OperationsException ex) {
             log.log(Level.INFO, "ClasspathAgent is ready but not registered as MBean \"" + MBEAN_NAME + "\":", ex);
         }
+        ClazzFishExecutor.DEFAULT.registerMeAsMBean();
         INSTANCE.addMeAsShutdownHook();
     }
 
@@ -84,10 +94,7 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
     }
 
     private ClasspathAgent() {
-        this.dumpURI = Config.DEFAULT.getDumpURI();
-        if (!dumpURI.getScheme().equals("file")) {
-            dumpURI = Config.NULL_URI;
-        }
+        this.dumpURI = toFileURI(Config.DEFAULT.getDumpURI());
     }
 
     /**
@@ -103,13 +110,77 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
 
     /**
      * I guess this method will be called from the VM.
+     * <p>
+     * Since 3.1 a {@link ClassLoadRecorder} is registered which records the
+     * classes when they are loaded. The behaviour of the agent can be
+     * controlled by the agent arguments (see {@link AgentArgs}), e.g.
+     * "mode=snapshot" does not register a ClassLoadRecorder.
+     * </p>
      *
      * @param agentArgs the agent args
      * @param inst the inst
      */
-    public static void premain(final String agentArgs, final Instrumentation inst){
+    public static synchronized void premain(final String agentArgs, final Instrumentation inst){
+        if ((instrumentation != null) && (recorder != null)) {
+            instrumentation.removeTransformer(recorder);
+        }
         instrumentation = inst;
         args = agentArgs;
+        ClasspathAgent.agentArgs = AgentArgs.parse(agentArgs);
+        AgentArgs parsed = ClasspathAgent.agentArgs;
+        if ((inst == null) || (parsed.getMode() == AgentArgs.Mode.SNAPSHOT)) {
+            recorder = null;
+        } else {
+            recorder = new ClassLoadRecorder(inst);
+            inst.addTransformer(recorder, false);
+            log.log(Level.FINE, "{0} is registered.", recorder);
+        }
+        if (parsed.getExclude() == null) {
+            ClassFilter.DEFAULT = CLASS_FILTER;
+        } else {
+            ClassFilter.DEFAULT = CLASS_FILTER.withExclude(parsed.getExclude());
+        }
+        INSTANCE.setDumpURI(toFileURI(parsed.getDumpURI()));
+        digger = null;
+        if (parsed.isAsync() && !Config.NULL_URI.equals(INSTANCE.getDumpURI())) {
+            getDigger().prewarm();
+        }
+        startScheduler(parsed.getInterval());
+    }
+
+    private static URI toFileURI(URI dumpURI) {
+        return "file".equals(dumpURI.getScheme()) ? dumpURI : Config.NULL_URI;
+    }
+
+    /**
+     * Gets the digger for the classes of the classpath. The digger is
+     * created on demand, i.e. the classpath is scanned at start only if
+     * the agent is started with "async=true" (default) and the statistic
+     * is dumped (i.e. the dump URI is not {@link Config#NULL_URI}).
+     *
+     * @return the digger
+     */
+    private static synchronized Digger getDigger() {
+        if (digger == null) {
+            digger = new AgentDigger();
+        }
+        return digger;
+    }
+
+    /**
+     * Starts the periodic dumps if the given interval is positive. A
+     * running scheduler is stopped before.
+     */
+    private static void startScheduler(Duration interval) {
+        if (scheduler != null) {
+            scheduler.stop();
+            scheduler = null;
+        }
+        if (!interval.isZero() && !interval.isNegative()) {
+            scheduler = new DumpScheduler(INSTANCE::dumpDelta, interval);
+            scheduler.start();
+            log.log(Level.INFO, "Loaded classes are dumped every {0}.", interval);
+        }
     }
 
     /**
@@ -161,10 +232,20 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
      * Note: Because we had in the past some doublets in the resulting array we
      * use now a {@link SortedSet} for sorting.
      * </p>
+     * <p>
+     * Since 3.1 the names are taken from the {@link ClassLoadRecorder}, i.e.
+     * the classes must not be collected again.
+     * </p>
      *
      * @return the classnames as string array
      */
     public String[] getLoadedClassnames() {
+        ClassLoadRecorder classLoadRecorder = recorder;
+        if (classLoadRecorder != null) {
+            String[] classnames = classLoadRecorder.getLoadedClassnames();
+            Arrays.sort(classnames);
+            return classnames;
+        }
         Class<?>[] classes = this.getLoadedClasses();
         SortedSet<String> classnames = new TreeSet<>();
         for (Class<?> aClass : classes) {
@@ -173,6 +254,25 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
         return classnames.toArray(new String[0]);
     }
 
+    /**
+     * Returns when and by which classloader the given class was loaded
+     * first.
+     *
+     * @param classname the name of the class
+     * @return e.g. "2026-10-19T10:15:30Z by app" or null if the class was
+     *         not recorded
+     * @since 3.1
+     */
+    @Override
+    public String getClassLoadInfo(String classname) {
+        ClassLoadRecorder classLoadRecorder = recorder;
+        if (classLoadRecorder == null) {
+            return null;
+        }
+        ClassLoadRecorder.LoadEvent event = classLoadRecorder.getLoadEvent(classname);
+        return (event == null) ? null : event.toString();
+    }
+
     /**
      * Checks if is active. This is true if this class here was started as
      * Java agent.
@@ -244,12 +344,11 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
      * @return the temporary file
      * @see ClasspathAgentMBean#dumpLoadedClasses()
      */
-    public File dumpLoadedClasses() {
+    public synchronized File dumpLoadedClasses() {
         URI dumpURI = getDumpURI();
         if (dumpURI.getScheme().equals("file")) {
             log.log(Level.INFO, "Loaded classes are dumped to {0}.", dumpURI);
-            FileXPorter porter = new FileXPorter(dumpURI);
-            ClazzStatistic statistic = ClazzStatistic.of(porter);
+            ClazzStatistic statistic = getStatistic(dumpURI);
             try {
                 statistic.exportCSV();
             } catch (IOException ex) {
@@ -262,6 +361,28 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
         }
     }
 
+    private static ClazzStatistic getStatistic(URI dumpURI) {
+        return ClazzStatistic.of(new FileXPorter(dumpURI), getDigger());
+    }
+
+    /**
+     * Appends the classes which are loaded since the last dump. This is
+     * called periodically by the {@link DumpScheduler}. To avoid that the
+     * appended classes are counted twice the statistic is switched into
+     * delta mode, i.e. the dump at shutdown appends the remaining classes
+     * only.
+     *
+     * @throws IOException in case of I/O problems
+     */
+    synchronized void dumpDelta() throws IOException {
+        URI dumpURI = getDumpURI();
+        if ("file".equals(dumpURI.getScheme())) {
+            ClazzStatistic statistic = getStatistic(dumpURI);
+            statistic.setDeltaMode(true);
+            statistic.exportCSV();
+        }
+    }
+
     private void dumpLoadedClasses(final BufferedWriter writer) throws IOException {
         String[] classes = this.getLoadedClassnames();
         int numberClasses = 0;
@@ -290,7 +411,7 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
      */
     @Override
     public String[] getAllClasses() {
-        return digger.getClasses();
+        return getDigger().getClasses();
     }
 
 
@@ -321,8 +442,35 @@ public class ClasspathAgent extends ShutdownHook implements ClasspathAgentMBean
     @Override
     public void run() {
         long start = System.currentTimeMillis();
+        if (scheduler != null) {
+            scheduler.stop();
+        }
         dumpLoadedClasses();
         log.log(Level.INFO, "Shutdown of agent ends after {0} ms.", System.currentTimeMillis() - start);
     }
 
+
+
+    /**
+     * The AgentDigger uses the {@link ClassLoadRecorder} (if registered) for
+     * the loaded classes and the parallelism of the agent arguments.
+     */
+    private static final class AgentDigger extends Digger {
+
+        private AgentDigger() {
+            super(getClassLoading());
+        }
+
+        private static ClassLoading getClassLoading() {
+            ClassLoadRecorder classLoadRecorder = recorder;
+            return (classLoadRecorder == null) ? new ClassDiagnostic() : classLoadRecorder;
+        }
+
+        @Override
+        protected int getParallelism() {
+            return agentArgs.getParallelism();
+        }
+
+    }
+
 }
@@ -56,6 +56,16 @@ public interface ClasspathAgentMBean extends ClassLoading, Serializable {
      */
     Class<?>[] getLoadedClasses(final ClassLoader classloader);
 
+    /**
+     * Returns when and by which classloader the given class was loaded
+     * first.
+     *
+     * @param classname the name of the class
+     * @return load time and classloader or null if the class was not recorded
+     * @since 3.1
+     */
+    String getClassLoadInfo(String classname);
+
     /**
      * Prints the loaded classes to the log output.
      *
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The DumpScheduler calls a dump periodically in a background (daemon)
+ * thread. So a statistic is available even if the JVM is killed and the
+ * shutdown hook is not called.
+ * <p>
+ * The delay between two dumps is adapted:
+ * </p>
+ * <ul>
+ *     <li>The dump may use {@link #CPU_BUDGET} (1%) of the CPU time only.
+ *         If a dump needs more CPU time the delay until the next dump is
+ *         increased accordingly.</li>
+ *     <li>If a dump fails with an {@link IOException} the delay is doubled
+ *         (up to {@link #MAX_BACKOFF} times the interval). After the next
+ *         successful dump the normal interval is used again.</li>
+ * </ul>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class DumpScheduler {
+
+    /** The part of the CPU time which a dump may use. */
+    public static final double CPU_BUDGET = 0.01;
+    /** The maximal factor of the interval for the back-off. */
+    public static final int MAX_BACKOFF = 32;
+
+    private static final Logger log = Logger.getLogger(DumpScheduler.class.getName());
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private final Dump dump;
+    private final long intervalNanos;
+    private final ScheduledExecutorService executor;
+    private volatile ScheduledFuture<?> next;
+    private volatile int failures;
+    private volatile long delayNanos;
+
+    /**
+     * The dump which is called periodically.
+     */
+    @FunctionalInterface
+    public interface Dump {
+
+        /**
+         * Dumps the statistic.
+         *
+         * @throws IOException in case of I/O problems
+         */
+        void dump() throws IOException;
+
+    }
+
+    /**
+     * Creates a scheduler for the given dump.
+     *
+     * @param dump     the dump to be called periodically
+     * @param interval the (minimal) interval between two dumps
+     */
+    public DumpScheduler(Dump dump, Duration interval) {
+        if (interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        this.dump = dump;
+        this.intervalNanos = interval.toNanos();
+        this.delayNanos = intervalNanos;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "clazzfish-dump");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /**
+     * Starts the scheduler. The first dump is called after the interval.
+     */
+    public synchronized void start() {
+        if (next == null) {
+            next = executor.schedule(this::run, delayNanos, TimeUnit.NANOSECONDS);
+            log.log(Level.FINE, "Dumps are scheduled every {0}.", Duration.ofNanos(intervalNanos));
+        }
+    }
+
+    /**
+     * Stops the scheduler. A running dump is not interrupted.
+     */
+    public synchronized void stop() {
+        if (next != null) {
+            next.cancel(false);
+        }
+        executor.shutdown();
+    }
+
+    private void run() {
+        long cpuStart = getCpuTime();
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            dump.dump();
+            ok = true;
+        } catch (IOException | RuntimeException ex) {
+            ok = false;
+            log.log(Level.INFO, "Periodic dump failed ({0}).", ex.getMessage());
+            log.log(Level.FINE, "Details:", ex);
+        }
+        long cpuTime = (cpuStart < 0) ? System.nanoTime() - start : getCpuTime() - cpuStart;
+        failures = ok ? 0 : failures + 1;
+        delayNanos = computeDelay(intervalNanos, cpuTime, failures);
+        synchronized (this) {
+            if (!executor.isShutdown()) {
+                next = executor.schedule(this::run, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static long getCpuTime() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * Computes the delay until the next dump.
+     *
+     * @param intervalNanos the configured interval
+     * @param cpuNanos      the CPU time of the last dump
+     * @param failures      number of failed dumps in series
+     * @return the delay in nanoseconds
+     */
+    static long computeDelay(long intervalNanos, long cpuNanos, int failures) {
+        long delay = Math.max(intervalNanos, (long) (cpuNanos / CPU_BUDGET));
+        if (failures > 0) {
+            long factor = 1L << Math.min(failures, Integer.numberOfTrailingZeros(MAX_BACKOFF));
+            delay = Math.max(delay, intervalNanos * factor);
+        }
+        return delay;
+    }
+
+    /**
+     * Gets the delay until the next dump.
+     *
+     * @return the actual delay
+     */
+    public Duration getDelay() {
+        return Duration.ofNanos(delayNanos);
+    }
+
+    /**
+     * Gets the number of failed dumps in series.
+     *
+     * @return 0 if the last dump was successful
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " (delay " + getDelay() + ")";
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import clazzfish.core.Config;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AgentArgs}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+public final class AgentArgsTest {
+
+    @Test
+    public void parseNull() {
+        AgentArgs args = AgentArgs.parse(null);
+        assertEquals(Config.DEFAULT.getDumpURI(), args.getDumpURI());
+        assertEquals(Config.DEFAULT.getDumpInterval(), args.getInterval());
+        assertEquals(AgentArgs.Mode.TRANSFORMER, args.getMode());
+        assertTrue(args.isAsync());
+        assertNull(args.getExclude());
+        assertEquals(Config.DEFAULT.getDiggerParallelism(), args.getParallelism());
+    }
+
+    @Test
+    public void parse() {
+        AgentArgs args = AgentArgs.parse(
+                "dump=/tmp/stat.csv,interval=PT5M,exclude=java\\..*|sun\\..*,mode=snapshot,async=false,parallelism=2");
+        assertEquals(new File("/tmp/stat.csv").toURI(), args.getDumpURI());
+        assertEquals(Duration.ofMinutes(5), args.getInterval());
+        assertEquals("java\\..*|sun\\..*", args.getExclude());
+        assertEquals(AgentArgs.Mode.SNAPSHOT, args.getMode());
+        assertFalse(args.isAsync());
+        assertEquals(2, args.getParallelism());
+    }
+
+    @Test
+    public void parseExcludeWithComma() {
+        AgentArgs args = AgentArgs.parse("exclude=a{1,2}b,interval=10");
+        assertEquals("a{1,2}b", args.getExclude());
+        assertEquals(Duration.ofSeconds(10), args.getInterval());
+    }
+
+    @Test
+    public void parseDumpURI() {
+        AgentArgs args = AgentArgs.parse("dump=http://localhost/stat.csv");
+        assertEquals(URI.create("http://localhost/stat.csv"), args.getDumpURI());
+    }
+
+    @Test
+    public void parseInvalid() {
+        AgentArgs args = AgentArgs.parse("test,mode=unknown,parallelism=-1,interval=x,hello=world");
+        assertEquals(AgentArgs.Mode.TRANSFORMER, args.getMode());
+        assertEquals(Config.DEFAULT.getDiggerParallelism(), args.getParallelism());
+        assertEquals(Config.DEFAULT.getDumpInterval(), args.getInterval());
+    }
+
+}
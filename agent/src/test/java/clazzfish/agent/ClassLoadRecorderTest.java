@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.instrument.Instrumentation;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ClassLoadRecorder}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+public final class ClassLoadRecorderTest {
+
+    private final Instrumentation instrumentation = mock(Instrumentation.class);
+
+    @Test
+    public void testRecordLoadedClasses() {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class[] { String.class, int[].class });
+        ClassLoadRecorder recorder = new ClassLoadRecorder(instrumentation);
+        assertEquals(1, recorder.size());
+        assertEquals("bootstrap", recorder.getLoadEvent("java.lang.String").getClassloader());
+    }
+
+    @Test
+    public void testTransform() {
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class[0]);
+        ClassLoadRecorder recorder = new ClassLoadRecorder(instrumentation);
+        ClassLoader loader = getClass().getClassLoader();
+        assertNull(recorder.transform(loader, "de/test/Hello$World", null, null, new byte[0]));
+        assertNull(recorder.transform(loader, "de/test/Hello$World", null, null, new byte[0]));
+        assertNull(recorder.transform(loader, null, null, null, new byte[0]));
+        assertNull(recorder.transform(loader, "de/test/Redefined", Object.class, null, new byte[0]));
+        assertThat(Arrays.asList(recorder.getLoadedClassnames()), contains("de.test.Hello$World"));
+        ClassLoadRecorder.LoadEvent event = recorder.getLoadEvent("de.test.Hello$World");
+        assertNotNull(event.getTime());
+        assertThat(event.toString(), endsWith(" by app"));
+    }
+
+}
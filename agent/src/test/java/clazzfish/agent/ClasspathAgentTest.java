@@ -17,10 +17,13 @@
  */
 package clazzfish.agent;
 
+import clazzfish.core.ClassFilter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.instrument.Instrumentation;
 import java.net.URI;
 import java.util.Arrays;
@@ -66,6 +69,40 @@ public final class ClasspathAgentTest {
         assertThat(loadedClassnames, not(emptyArray()));
     }
 
+    @Test
+    public void testDumpDelta(@TempDir File tmpDir) throws IOException {
+        URI dumpURI = agent.getDumpURI();
+        File csvFile = new File(tmpDir, "delta.csv");
+        agent.setDumpURI(csvFile.toURI());
+        try {
+            agent.dumpDelta();
+            assertTrue(csvFile.isFile(), "not a file: " + csvFile);
+            agent.dumpDelta();
+            assertThat(tmpDir.list(), not(hasItemInArray(startsWith("delta.csv-"))));
+        } finally {
+            agent.setDumpURI(dumpURI);
+        }
+    }
+
+    @Test
+    public void testAgentmainWithExclude() {
+        try {
+            ClasspathAgent.agentmain("exclude=com\\.example\\..*", instrumentation);
+            assertFalse(ClassFilter.DEFAULT.isIncluded("com.example.Hello"));
+            assertFalse(ClassFilter.DEFAULT.isIncluded("module-info"));
+            assertTrue(ClassFilter.DEFAULT.isIncluded("com.other.Hello"));
+        } finally {
+            ClasspathAgent.agentmain("", instrumentation);
+        }
+        assertTrue(ClassFilter.DEFAULT.isIncluded("com.example.Hello"));
+    }
+
+    @Test
+    public void testGetClassLoadInfo() {
+        assertThat(agent.getClassLoadInfo(ClasspathAgentTest.class.getName()), containsString(" by "));
+        assertNull(agent.getClassLoadInfo("not.Loaded"));
+    }
+
     @Test
     public void testDumpLoadedClasses() {
         assertTrue(agent.isDumping());
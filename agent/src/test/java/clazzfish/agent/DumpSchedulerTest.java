@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link DumpScheduler}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+public final class DumpSchedulerTest {
+
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    public void testComputeDelay() {
+        assertEquals(INTERVAL, DumpScheduler.computeDelay(INTERVAL, TimeUnit.MILLISECONDS.toNanos(1), 0));
+        assertEquals(TimeUnit.SECONDS.toNanos(100),
+                DumpScheduler.computeDelay(INTERVAL, TimeUnit.SECONDS.toNanos(1), 0));
+    }
+
+    @Test
+    public void testComputeDelayBackoff() {
+        assertEquals(2 * INTERVAL, DumpScheduler.computeDelay(INTERVAL, 0, 1));
+        assertEquals(8 * INTERVAL, DumpScheduler.computeDelay(INTERVAL, 0, 3));
+        assertEquals(DumpScheduler.MAX_BACKOFF * INTERVAL, DumpScheduler.computeDelay(INTERVAL, 0, 100));
+    }
+
+    @Test
+    public void testPeriodicDump() throws InterruptedException {
+        CountDownLatch dumps = new CountDownLatch(3);
+        DumpScheduler scheduler = new DumpScheduler(dumps::countDown, Duration.ofMillis(10));
+        scheduler.start();
+        try {
+            assertTrue(dumps.await(10, TimeUnit.SECONDS));
+        } finally {
+            scheduler.stop();
+        }
+        assertEquals(0, scheduler.getFailures());
+    }
+
+    @Test
+    public void testFailingDump() throws InterruptedException {
+        CountDownLatch dumps = new CountDownLatch(2);
+        DumpScheduler scheduler = new DumpScheduler(() -> {
+            dumps.countDown();
+            throw new IOException("disk full");
+        }, Duration.ofMillis(10));
+        scheduler.start();
+        try {
+            assertTrue(dumps.await(10, TimeUnit.SECONDS));
+        } finally {
+            scheduler.stop();
+        }
+        assertTrue(scheduler.getFailures() > 0);
+        assertTrue(scheduler.getDelay().compareTo(Duration.ofMillis(20)) >= 0, "no back-off: " + scheduler);
+    }
+
+    @Test
+    public void testInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new DumpScheduler(() -> {}, Duration.ZERO));
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.jmx.ClassDiagnostic;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ClassDiagnosticBenchmark measures
+ * {@link ClassDiagnostic#getLoadedClassnames()} if 1k, 10k, 50k or 100k
+ * additional classes are loaded.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassDiagnosticBenchmark {
+
+    @Param({"1000", "10000", "50000", "100000"})
+    private int classes;
+
+    private SyntheticClasspath classpath;
+    private URLClassLoader classLoader;
+    private final ClassDiagnostic classDiagnostic = new ClassDiagnostic();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ClassNotFoundException {
+        classpath = SyntheticClasspath.create(classes);
+        classLoader = new URLClassLoader(new URL[]{classpath.getJar().toUri().toURL()}, null);
+        for (String classname : classpath.getClassnames()) {
+            Class.forName(classname, false, classLoader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        classLoader.close();
+        classpath.delete();
+    }
+
+    @Benchmark
+    public String[] getLoadedClassnames() {
+        return classDiagnostic.getLoadedClassnames();
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.ClassFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ClassFilterBenchmark measures {@link ClassFilter#isIncluded(String)}
+ * for 100k classnames in 1k packages. It compares the default filter
+ * (regex from "clazzfish.pattern.exclude") with a filter of globs.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClassFilterBenchmark {
+
+    @Param({"default", "globs"})
+    private String filter;
+
+    private final List<String> classnames = new ArrayList<>();
+    private ClassFilter classFilter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < 100_000; i++) {
+            classnames.add(String.format("com.example.p%d.sub%d.Generated%d", i % 100, i % 10, i));
+        }
+        classFilter = "default".equals(filter) ? new ClassFilter(".*module-info|META-INF\\..*")
+                : ClassFilter.of(Arrays.asList("com.example.**", "org.example.**"),
+                Arrays.asList("**.package-info", "com.example.p1.**", "**Test", "com.*.Main"));
+    }
+
+    @Benchmark
+    public int isIncluded() {
+        int n = 0;
+        for (String classname : classnames) {
+            if (classFilter.isIncluded(classname)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+}
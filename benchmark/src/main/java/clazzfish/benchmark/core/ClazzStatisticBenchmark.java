@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.spi.FileXPorter;
+import clazzfish.core.stat.ClazzRecord;
+import clazzfish.core.stat.ClazzStatistic;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ClazzStatisticBenchmark measures the methods of {@link ClazzStatistic}
+ * which are called at startup ({@link ClazzStatistic#importCSV(URI)}) and
+ * at shutdown ({@link ClazzStatistic#exportCSV()}) for a classpath of 1k,
+ * 10k or 100k classes. The classpath is a single jar (see
+ * {@link SyntheticClasspath}).
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ClazzStatisticBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int classes;
+
+    private SyntheticClasspath classpath;
+    private String javaClassPath;
+    private Path csvFile;
+    private ClazzStatistic statistic;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classpath = SyntheticClasspath.create(classes);
+        javaClassPath = System.getProperty("java.class.path");
+        System.setProperty("java.class.path", classpath.getJar().toString());
+        csvFile = Files.createTempDirectory("clazzfish-benchmark-").resolve("ClazzStatistic.csv");
+        statistic = ClazzStatistic.of(new FileXPorter(csvFile.toUri()));
+        statistic.exportCSV();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setProperty("java.class.path", javaClassPath);
+        classpath.delete();
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(csvFile.getParent());
+    }
+
+    @Benchmark
+    public SortedSet<ClazzRecord> getStatistics() {
+        return statistic.getStatistics();
+    }
+
+    @Benchmark
+    public void importCSV() {
+        statistic.importCSV(csvFile.toUri());
+    }
+
+    @Benchmark
+    public URI exportCSV() throws IOException {
+        return statistic.exportCSV();
+    }
+
+}
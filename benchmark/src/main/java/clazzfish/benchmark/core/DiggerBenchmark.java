@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.ClasspathIndex;
+import clazzfish.core.Digger;
+import clazzfish.core.stat.ClazzRecord;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The DiggerBenchmark measures how long {@link Digger#getClassRecords()}
+ * needs to scan a classpath with 1k, 10k or 100k classes. The classes are
+ * provided as directory, as jar or as nested jars inside a fat jar (see
+ * {@link SyntheticClasspath}).
+ * <p>
+ * Because the scan is done once at startup the single shot time is measured.
+ * The {@link ClasspathIndex} is cleared before each iteration so that each
+ * iteration scans the classpath again.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class DiggerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int classes;
+
+    @Param({"dir", "jar", "nested"})
+    private String layout;
+
+    private SyntheticClasspath classpath;
+    private String javaClassPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classpath = SyntheticClasspath.create(classes);
+        javaClassPath = System.getProperty("java.class.path");
+        System.setProperty("java.class.path", String.join(File.pathSeparator, classpath.getClasspath(layout)));
+    }
+
+    @Setup(Level.Iteration)
+    public void clearIndex() {
+        ClasspathIndex.DEFAULT.clear();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.setProperty("java.class.path", javaClassPath);
+        classpath.delete();
+    }
+
+    @Benchmark
+    public Set<ClazzRecord> getClassRecords() {
+        return new Digger().getClassRecords();
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.Digger;
+import clazzfish.core.util.ArchiveIndex;
+import clazzfish.core.util.NestedArchive;
+import clazzfish.core.util.NestedZipFile;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+/**
+ * The NestedZipFileBenchmark measures the access of a nested jar inside a
+ * fat jar. The fat jar contains {@link SyntheticClasspath#NESTED_JARS} jars,
+ * i.e. a single nested jar contains 1/10 of the classes.
+ * <p>
+ * Each access to a nested jar via {@link NestedZipFile} extracts it into a
+ * temporary file. That's why the single shot time is measured - otherwise the
+ * benchmark would flood the temp directory.
+ * </p>
+ * <p>
+ * For comparison the entries of the nested jar are also read in memory by
+ * {@link NestedArchive} and from an {@link ArchiveIndex}.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class NestedZipFileBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int classes;
+
+    private SyntheticClasspath classpath;
+    private File nestedJar;
+    private ArchiveIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classpath = SyntheticClasspath.create(classes);
+        nestedJar = new File(classpath.getNestedJars()[SyntheticClasspath.NESTED_JARS - 1]);
+        index = new ArchiveIndex(classpath.getClassesDir().resolveSibling("index").toFile());
+        Digger.readElementsFromNestedArchive(nestedJar, index);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        classpath.delete();
+    }
+
+    @Benchmark
+    public int openNestedJar() throws IOException {
+        try (ZipFile zipFile = new NestedZipFile(nestedJar)) {
+            return zipFile.size();
+        }
+    }
+
+    @Benchmark
+    public List<String> readEntryNames() throws IOException {
+        return NestedArchive.readEntryNames(nestedJar);
+    }
+
+    @Benchmark
+    public Collection<String> readElementsFromNestedArchive() throws IOException {
+        return Digger.readElementsFromNestedArchive(nestedJar, ArchiveIndex.DISABLED);
+    }
+
+    @Benchmark
+    public Collection<String> readElementsFromArchiveIndex() throws IOException {
+        return Digger.readElementsFromNestedArchive(nestedJar, index);
+    }
+
+}
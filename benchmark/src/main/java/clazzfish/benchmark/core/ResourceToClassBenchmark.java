@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.Digger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ResourceToClassBenchmark measures {@link Digger#resourceToClass(String)}
+ * for 100k resources (as they are found in a jar) and the counterpart
+ * {@link Digger#classToResource(String)}. The gain on the whole scan can be
+ * seen with the {@link DiggerBenchmark}.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceToClassBenchmark {
+
+    private final List<String> classnames = new ArrayList<>();
+    private final List<String> resources = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        for (int i = 0; i < 100_000; i++) {
+            String classname = String.format("com.example.p%d.sub%d.Generated%d", i % 100, i % 10, i);
+            classnames.add(classname);
+            resources.add(classname.replace('.', '/') + ".class");
+        }
+    }
+
+    @Benchmark
+    public void resourceToClass(Blackhole bh) {
+        for (String resource : resources) {
+            bh.consume(Digger.resourceToClass(resource));
+        }
+    }
+
+    @Benchmark
+    public void classToResource(Blackhole bh) {
+        for (String classname : classnames) {
+            bh.consume(Digger.classToResource(classname));
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.ResourceWalker;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ResourceWalkerBenchmark measures {@link ResourceWalker#getClasses()}
+ * for a classes directory with 1k, 10k or 100k classes.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class ResourceWalkerBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int classes;
+
+    private SyntheticClasspath classpath;
+    private File classesDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        classpath = SyntheticClasspath.create(classes);
+        classesDir = classpath.getClassesDir().toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        classpath.delete();
+    }
+
+    @Benchmark
+    public Collection<String> getClasses() throws IOException {
+        return new ResourceWalker(classesDir).getClasses();
+    }
+
+}
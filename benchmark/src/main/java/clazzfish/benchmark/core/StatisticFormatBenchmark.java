@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import clazzfish.core.spi.BinXPorter;
+import clazzfish.core.spi.CsvXPorter;
+import clazzfish.core.spi.FileXPorter;
+import clazzfish.core.stat.ClazzRecord;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The StatisticFormatBenchmark compares the parse throughput of a class
+ * statistic with 1k, 10k or 100k lines stored as CSV ({@link FileXPorter})
+ * and in the binary format ({@link BinXPorter}), plain and compressed.
+ * Each line is parsed into a {@link ClazzRecord} as in
+ * {@link clazzfish.core.stat.ClazzStatistic#importCSV(URI)}.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticFormatBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int classes;
+
+    @Param({"csv", "bin", "bin-compressed"})
+    private String format;
+
+    private Path dir;
+    private URI uri;
+    private CsvXPorter xPorter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("clazzfish-benchmark-");
+        uri = dir.resolve("ClazzStatistic.csv").toUri();
+        switch (format) {
+            case "csv":
+                xPorter = new FileXPorter(uri);
+                break;
+            case "bin":
+                xPorter = new BinXPorter(uri, false);
+                break;
+            default:
+                xPorter = new BinXPorter(uri, true);
+                break;
+        }
+        List<String> lines = new ArrayList<>(classes);
+        for (int i = 0; i < classes; i++) {
+            URI classpath = new File("/opt/app/lib/lib-" + (i % 50) + ".jar").toURI();
+            lines.add(new ClazzRecord(classpath, "synthetic.p" + (i / 100) + ".C" + i, i % 7).toCSV());
+        }
+        xPorter.exportCSV(ClazzRecord.toCsvHeadline(), lines);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (File file : dir.toFile().listFiles()) {
+            Files.delete(file.toPath());
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        int[] n = { 0 };
+        xPorter.importCSV(uri, line -> {
+            if (n[0]++ > 0) {
+                bh.consume(ClazzRecord.fromCSV(line));
+            }
+        });
+    }
+
+    @Benchmark
+    public void readLines(Blackhole bh) throws IOException {
+        xPorter.importCSV(uri, bh::consume);
+    }
+
+}
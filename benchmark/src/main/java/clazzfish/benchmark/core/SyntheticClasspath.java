@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.core;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The SyntheticClasspath generates a classpath with the given number of
+ * classes in a temporary directory. The same classes are provided
+ * <ul>
+ *     <li>as classes directory ("classes"),</li>
+ *     <li>as JAR file ("classes.jar") and</li>
+ *     <li>as fat jar ("fat.jar") with {@link #NESTED_JARS} nested jars below
+ *         "BOOT-INF/lib/" like a Spring Boot application.</li>
+ * </ul>
+ * The generated classes are real (but empty) class files so they can also be
+ * loaded by a classloader.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class SyntheticClasspath {
+
+    /** Number of nested jars inside the fat jar. */
+    public static final int NESTED_JARS = 10;
+    private static final int CLASSES_PER_PACKAGE = 100;
+
+    private final Path root;
+    private final List<String> classnames;
+
+    private SyntheticClasspath(Path root, List<String> classnames) {
+        this.root = root;
+        this.classnames = classnames;
+    }
+
+    /**
+     * Creates the synthetic classpath in a new temporary directory.
+     *
+     * @param n number of classes
+     * @return the created classpath
+     * @throws IOException if the classpath cannot be created
+     */
+    public static SyntheticClasspath create(int n) throws IOException {
+        Path root = Files.createTempDirectory("clazzfish-benchmark-");
+        List<String> classnames = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            classnames.add(String.format("synthetic.p%d.C%d", i / CLASSES_PER_PACKAGE, i));
+        }
+        SyntheticClasspath classpath = new SyntheticClasspath(root, classnames);
+        classpath.writeClassesDir();
+        classpath.writeJar();
+        classpath.writeFatJar();
+        return classpath;
+    }
+
+    public List<String> getClassnames() {
+        return classnames;
+    }
+
+    public Path getClassesDir() {
+        return root.resolve("classes");
+    }
+
+    public Path getJar() {
+        return root.resolve("classes.jar");
+    }
+
+    public Path getFatJar() {
+        return root.resolve("fat.jar");
+    }
+
+    /**
+     * Gets the nested jars of the fat jar as classpath elements, e.g.
+     * "/tmp/.../fat.jar!/BOOT-INF/lib/lib-0.jar".
+     *
+     * @return the nested jars
+     */
+    public String[] getNestedJars() {
+        String[] nested = new String[NESTED_JARS];
+        for (int i = 0; i < NESTED_JARS; i++) {
+            nested[i] = getFatJar() + "!/" + getNestedJarName(i);
+        }
+        return nested;
+    }
+
+    /**
+     * Gets the classpath for the given layout.
+     *
+     * @param layout "dir", "jar" or "nested"
+     * @return the classpath elements
+     */
+    public String[] getClasspath(String layout) {
+        switch (layout) {
+            case "dir":
+                return new String[]{getClassesDir().toString()};
+            case "jar":
+                return new String[]{getJar().toString()};
+            case "nested":
+                return getNestedJars();
+            default:
+                throw new IllegalArgumentException("unknown layout '" + layout + "'");
+        }
+    }
+
+    /**
+     * Deletes the temporary directory with all generated files.
+     *
+     * @throws IOException if the files cannot be deleted
+     */
+    public void delete() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path p : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    private void writeClassesDir() throws IOException {
+        Path dir = getClassesDir();
+        for (String classname : classnames) {
+            Path file = dir.resolve(toResource(classname));
+            Files.createDirectories(file.getParent());
+            Files.write(file, toClassFile(classname));
+        }
+    }
+
+    private void writeJar() throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(getJar()))) {
+            writeClasses(zip, classnames);
+        }
+    }
+
+    private void writeFatJar() throws IOException {
+        int size = (classnames.size() + NESTED_JARS - 1) / NESTED_JARS;
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(getFatJar()))) {
+            for (int i = 0; i < NESTED_JARS; i++) {
+                List<String> part = classnames.subList(Math.min(i * size, classnames.size()),
+                        Math.min((i + 1) * size, classnames.size()));
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (ZipOutputStream nested = new ZipOutputStream(bytes)) {
+                    writeClasses(nested, part);
+                }
+                writeStored(zip, getNestedJarName(i), bytes.toByteArray());
+            }
+        }
+    }
+
+    private static String getNestedJarName(int i) {
+        return "BOOT-INF/lib/lib-" + i + ".jar";
+    }
+
+    private static void writeClasses(ZipOutputStream zip, List<String> classnames) throws IOException {
+        for (String classname : classnames) {
+            zip.putNextEntry(new ZipEntry(toResource(classname)));
+            zip.write(toClassFile(classname));
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Nested jars are stored uncompressed, as Spring Boot does it.
+     */
+    private static void writeStored(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(content.length);
+        entry.setCompressedSize(content.length);
+        entry.setCrc(crc.getValue());
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    private static String toResource(String classname) {
+        return classname.replace('.', '/') + ".class";
+    }
+
+    /**
+     * Creates the bytecode of an empty public class (without any method)
+     * which extends Object.
+     *
+     * @param classname e.g. "synthetic.p0.C0"
+     * @return the bytecode of the class
+     */
+    static byte[] toClassFile(String classname) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + classname.length());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);              // minor version
+            out.writeShort(52);             // major version (Java 8)
+            out.writeShort(5);              // constant pool count
+            writeClassConstant(out, 1, classname.replace('.', '/'));
+            writeClassConstant(out, 3, "java/lang/Object");
+            out.writeShort(0x0021);         // ACC_PUBLIC | ACC_SUPER
+            out.writeShort(2);              // this class
+            out.writeShort(4);              // super class
+            out.writeShort(0);              // interfaces
+            out.writeShort(0);              // fields
+            out.writeShort(0);              // methods
+            out.writeShort(0);              // attributes
+        } catch (IOException ex) {
+            throw new IllegalStateException("cannot create class " + classname, ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeClassConstant(DataOutputStream out, int utf8Index, String internalName)
+            throws IOException {
+        out.writeByte(1);                   // CONSTANT_Utf8
+        out.writeUTF(internalName);
+        out.writeByte(7);                   // CONSTANT_Class
+        out.writeShort(utf8Index);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " with " + classnames.size() + " classes in " + root;
+    }
+
+}
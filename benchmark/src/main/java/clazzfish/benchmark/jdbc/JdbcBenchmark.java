@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.jdbc;
+
+import clazzfish.jdbc.ProxyDriver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.sql.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JdbcBenchmark measures the overhead of the {@link ProxyDriver} (and the
+ * StasiStatement, StasiPreparedStatement and StasiResultSet behind it)
+ * compared to a raw connection of an in-memory HSQLDB. Both variants are
+ * selected by the "driver" parameter.
+ * <p>
+ * The benchmarks run single-threaded. For the multi-threaded variant see
+ * {@link JdbcConcurrentBenchmark}.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+public class JdbcBenchmark {
+
+    /** Number of rows in the table used for the benchmarks. */
+    static final int ROWS = 100;
+    private static final String DB_URL = "hsqldb:mem:benchmark";
+    private static final int BATCH_SIZE = 10;
+
+    @Param({"raw", "proxy"})
+    private String driver;
+
+    private Connection connection;
+    private PreparedStatement preparedQuery;
+    private PreparedStatement preparedUpdate;
+    private int id;
+
+    /**
+     * Creates the connection and the table for the benchmarks. Each thread
+     * gets its own connection and its own row for updates.
+     *
+     * @param threadParams to get the thread index
+     * @throws SQLException in case of DB problems
+     */
+    @Setup(Level.Trial)
+    public void setUp(ThreadParams threadParams) throws SQLException {
+        ProxyDriver.register();
+        connection = DriverManager.getConnection(getURL());
+        createTable(connection);
+        id = threadParams.getThreadIndex() % ROWS;
+        preparedQuery = connection.prepareStatement("SELECT id, name, counter FROM bench WHERE id = ?");
+        preparedUpdate = connection.prepareStatement("UPDATE bench SET counter = counter + 1 WHERE id = ?");
+    }
+
+    private String getURL() {
+        return "proxy".equals(driver) ? "jdbc:proxy:" + DB_URL : "jdbc:" + DB_URL;
+    }
+
+    private static synchronized void createTable(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS bench (id INTEGER PRIMARY KEY, name VARCHAR(50), counter INTEGER)");
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM bench")) {
+                rs.next();
+                if (rs.getInt(1) > 0) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench (id, name, counter) VALUES (?, ?, 0)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setInt(1, i);
+                insert.setString(2, "name-" + i);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    /**
+     * Closes the prepared statements and the connection.
+     *
+     * @throws SQLException in case of DB problems
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        preparedQuery.close();
+        preparedUpdate.close();
+        connection.close();
+    }
+
+    @Benchmark
+    public void executeQuery(Blackhole bh) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name, counter FROM bench WHERE id = " + id)) {
+            while (rs.next()) {
+                bh.consume(rs.getString(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public int executeUpdate() throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            return stmt.executeUpdate("UPDATE bench SET counter = counter + 1 WHERE id = " + id);
+        }
+    }
+
+    @Benchmark
+    public void executePreparedQuery(Blackhole bh) throws SQLException {
+        preparedQuery.setInt(1, id);
+        try (ResultSet rs = preparedQuery.executeQuery()) {
+            while (rs.next()) {
+                bh.consume(rs.getString(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public int executePreparedUpdate() throws SQLException {
+        preparedUpdate.setInt(1, id);
+        return preparedUpdate.executeUpdate();
+    }
+
+    @Benchmark
+    public int[] executeBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            preparedUpdate.setInt(1, (id + i) % ROWS);
+            preparedUpdate.addBatch();
+        }
+        return preparedUpdate.executeBatch();
+    }
+
+    @Benchmark
+    public long iterateResultSet() throws SQLException {
+        long sum = 0;
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id, name, counter FROM bench")) {
+            while (rs.next()) {
+                sum += rs.getInt("id") + rs.getString("name").length() + rs.getInt(3);
+            }
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.benchmark.jdbc;
+
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * The same benchmarks as in {@link JdbcBenchmark} but with 4 threads. Each
+ * thread uses its own connection. Because all threads record their
+ * statements in the same SqlStatistic this shows the contention inside the
+ * proxy classes.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+@Threads(4)
+public class JdbcConcurrentBenchmark extends JdbcBenchmark {
+}
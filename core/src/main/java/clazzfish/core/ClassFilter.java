@@ -17,12 +17,29 @@
  */
 package clazzfish.core;
 
-import java.util.regex.Matcher;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
  * The ClassFilter was introduced with issue #34. It allows you to exclude
  * classes which are of no interest for you.
+ * <p>
+ * Since 3.1 the classes can be also included or excluded by globs (see
+ * {@link Config#GLOB_INCLUDE} and {@link Config#GLOB_EXCLUDE}). The globs
+ * and the alternatives of the exclude pattern are compiled into
+ * </p>
+ * <ul>
+ *     <li>a prefix trie (e.g. "com.example.**" or "META-INF\..*"),</li>
+ *     <li>a list of suffixes (e.g. "**.package-info" or ".*module-info"),</li>
+ *     <li>a set of exact names and</li>
+ *     <li>residual regexes for the rest which are only used if the name
+ *         starts and ends with the literal parts of the glob.</li>
+ * </ul>
+ * <p>
+ * The trie node which is reached after the package of a name is cached, so
+ * the package of a name is walked through only once.
+ * </p>
  *
  * @author oboehm
  * @since 2.7 (12.06.25)
@@ -30,19 +47,427 @@ import java.util.regex.Pattern;
 public final class ClassFilter {
 
     public static ClassFilter DEFAULT = new ClassFilter();
-    private final Pattern exclude;
+    private static final int MAX_CACHED_PACKAGES = 1 << 14;
+    private final List<String> patterns;
+    private final List<String> includeGlobs;
+    private final List<String> excludeGlobs;
+    private final Rules includes;
+    private final Rules excludes;
+    private final Node[] rootNodes;
+    private final Map<String, Node[]> packageNodes = new ConcurrentHashMap<>();
 
     private ClassFilter() {
-        this(Config.DEFAULT.getProperty(Config.PATTERN_EXCLUDE));
+        this(toList(Config.DEFAULT.getProperty(Config.PATTERN_EXCLUDE)), Config.DEFAULT.getGlobIncludes(),
+                Config.DEFAULT.getGlobExcludes());
     }
 
+    /**
+     * Creates a filter which excludes the classes matching the given
+     * regular expression.
+     *
+     * @param pattern regular expression of the excluded classes
+     */
     public ClassFilter(String pattern) {
-        this.exclude = Pattern.compile(pattern);
+        this(toList(pattern), Collections.emptyList(), Collections.emptyList());
+    }
+
+    private ClassFilter(Collection<String> patterns, Collection<String> includeGlobs,
+                        Collection<String> excludeGlobs) {
+        this.patterns = new ArrayList<>(patterns);
+        this.includeGlobs = new ArrayList<>(includeGlobs);
+        this.excludeGlobs = new ArrayList<>(excludeGlobs);
+        Rules.Builder includeBuilder = new Rules.Builder();
+        includeGlobs.forEach(includeBuilder::addGlob);
+        Rules.Builder excludeBuilder = new Rules.Builder();
+        for (String pattern : patterns) {
+            Pattern.compile(pattern);
+            excludeBuilder.addRegex(pattern);
+        }
+        excludeGlobs.forEach(excludeBuilder::addGlob);
+        this.includes = includeBuilder.build();
+        this.excludes = excludeBuilder.build();
+        this.rootNodes = new Node[] { includes.prefixes, excludes.prefixes };
+    }
+
+    /**
+     * Creates a filter from the given globs. A "*" matches any character but
+     * a dot, "**" matches any character and "?" matches a single character
+     * but a dot.
+     *
+     * @param includeGlobs globs of the included classes (all if empty)
+     * @param excludeGlobs globs of the excluded classes
+     * @return the filter
+     * @since 3.1
+     */
+    public static ClassFilter of(Collection<String> includeGlobs, Collection<String> excludeGlobs) {
+        return new ClassFilter(Collections.emptyList(), includeGlobs, excludeGlobs);
+    }
+
+    /**
+     * Creates a filter which excludes the classes matching the given
+     * regular expression in addition to the classes which are excluded by
+     * this filter. The includes of this filter are kept.
+     *
+     * @param pattern regular expression of the additional excluded classes
+     * @return the combined filter
+     * @since 3.1
+     */
+    public ClassFilter withExclude(String pattern) {
+        List<String> combined = new ArrayList<>(patterns);
+        combined.add(pattern);
+        return new ClassFilter(combined, includeGlobs, excludeGlobs);
+    }
+
+    private static List<String> toList(String pattern) {
+        return (pattern == null) ? Collections.emptyList() : Collections.singletonList(pattern);
     }
 
     public boolean isIncluded(String name) {
-        Matcher matcher = exclude.matcher(name);
-        return !matcher.matches();
+        int dot = name.lastIndexOf('.');
+        Node[] nodes = getPackageNodes(name, dot);
+        if (!includes.isEmpty() && !includes.matches(name, dot + 1, nodes[0])) {
+            return false;
+        }
+        return !excludes.matches(name, dot + 1, nodes[1]);
+    }
+
+    /**
+     * Gets the nodes of the include and exclude trie which are reached after
+     * the package of the given name (including the dot). If both tries are
+     * decided after the first package segment (e.g. "com.") the nodes are
+     * returned without a lookup in the package cache.
+     */
+    private Node[] getPackageNodes(String name, int dot) {
+        if (dot < 0 || ((includes.prefixes == null) && (excludes.prefixes == null))) {
+            return rootNodes;
+        }
+        int first = name.indexOf('.') + 1;
+        Node include = Node.walk(includes.prefixes, name, 0, first);
+        Node exclude = Node.walk(excludes.prefixes, name, 0, first);
+        if (include.isDecided() && exclude.isDecided()) {
+            return new Node[] { include, exclude };
+        }
+        String pkg = name.substring(0, dot + 1);
+        Node[] nodes = packageNodes.get(pkg);
+        if (nodes == null) {
+            nodes = new Node[] { Node.walk(include, pkg, first, pkg.length()),
+                    Node.walk(exclude, pkg, first, pkg.length()) };
+            if (packageNodes.size() >= MAX_CACHED_PACKAGES) {
+                packageNodes.clear();
+            }
+            packageNodes.put(pkg, nodes);
+        }
+        return nodes;
+    }
+
+
+
+    /**
+     * The compiled rules of the includes or excludes.
+     */
+    private static final class Rules {
+
+        private final Node prefixes;
+        private final String[] suffixes;
+        private final Set<String> exacts;
+        private final Residual[] residuals;
+
+        private Rules(Builder builder) {
+            this.prefixes = builder.prefixes.isLeaf() && !builder.prefixes.terminal ? null : builder.prefixes;
+            this.suffixes = builder.suffixes.toArray(new String[0]);
+            this.exacts = new HashSet<>(builder.exacts);
+            this.residuals = builder.residuals.toArray(new Residual[0]);
+        }
+
+        private boolean isEmpty() {
+            return (prefixes == null) && (suffixes.length == 0) && exacts.isEmpty() && (residuals.length == 0);
+        }
+
+        /**
+         * Checks if the given name matches one of the rules. The prefix trie
+         * is walked from the given node which was reached after the package.
+         */
+        private boolean matches(String name, int from, Node node) {
+            if ((Node.walk(node, name, from, name.length()) == Node.MATCHED) || exacts.contains(name)) {
+                return true;
+            }
+            for (String suffix : suffixes) {
+                if (name.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            for (Residual residual : residuals) {
+                if (residual.matches(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static final class Builder {
+
+            private final Node prefixes = new Node();
+            private final List<String> suffixes = new ArrayList<>();
+            private final List<String> exacts = new ArrayList<>();
+            private final List<Residual> residuals = new ArrayList<>();
+
+            private void addGlob(String glob) {
+                if (glob.endsWith("**") && isLiteral(glob, 0, glob.length() - 2)) {
+                    prefixes.add(glob.substring(0, glob.length() - 2));
+                } else if (glob.startsWith("**") && isLiteral(glob, 2, glob.length())) {
+                    suffixes.add(glob.substring(2));
+                } else if (isLiteral(glob, 0, glob.length())) {
+                    exacts.add(glob);
+                } else {
+                    int start = indexOfWildcard(glob);
+                    int end = lastIndexOfWildcard(glob) + 1;
+                    residuals.add(new Residual(glob.substring(0, start), glob.substring(end),
+                            Pattern.compile(globToRegex(glob))));
+                }
+            }
+
+            private static int indexOfWildcard(String glob) {
+                for (int i = 0; i < glob.length(); i++) {
+                    if (!isLiteral(glob, i, i + 1)) {
+                        return i;
+                    }
+                }
+                return glob.length();
+            }
+
+            private static int lastIndexOfWildcard(String glob) {
+                for (int i = glob.length() - 1; i >= 0; i--) {
+                    if (!isLiteral(glob, i, i + 1)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            private static boolean isLiteral(String glob, int from, int to) {
+                for (int i = from; i < to; i++) {
+                    char c = glob.charAt(i);
+                    if ((c == '*') || (c == '?')) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+
+            private static String globToRegex(String glob) {
+                StringBuilder regex = new StringBuilder();
+                for (int i = 0; i < glob.length(); i++) {
+                    char c = glob.charAt(i);
+                    if (c == '*') {
+                        if ((i + 1 < glob.length()) && (glob.charAt(i + 1) == '*')) {
+                            regex.append(".*");
+                            i++;
+                        } else {
+                            regex.append("[^.]*");
+                        }
+                    } else if (c == '?') {
+                        regex.append("[^.]");
+                    } else if (Character.isLetterOrDigit(c)) {
+                        regex.append(c);
+                    } else {
+                        regex.append('\\').append(c);
+                    }
+                }
+                return regex.toString();
+            }
+
+            /**
+             * Splits the regex into its alternatives. Alternatives which are
+             * a literal with a leading or trailing ".*" are added as prefix
+             * or suffix, the others are kept as regex.
+             */
+            private void addRegex(String regex) {
+                List<String> alternatives = splitAlternatives(regex);
+                if (alternatives == null) {
+                    residuals.add(new Residual(Pattern.compile(regex)));
+                    return;
+                }
+                for (String alt : alternatives) {
+                    boolean anyStart = alt.startsWith(".*");
+                    boolean anyEnd = (alt.length() >= (anyStart ? 4 : 2)) && alt.endsWith(".*")
+                            && !isEscaped(alt, alt.length() - 2);
+                    String literal = unescape(alt, anyStart ? 2 : 0, anyEnd ? alt.length() - 2 : alt.length());
+                    if ((literal == null) || (anyStart && anyEnd)) {
+                        residuals.add(new Residual(Pattern.compile(alt)));
+                    } else if (anyEnd) {
+                        prefixes.add(literal);
+                    } else if (anyStart) {
+                        suffixes.add(literal);
+                    } else {
+                        exacts.add(literal);
+                    }
+                }
+            }
+
+            private static List<String> splitAlternatives(String regex) {
+                List<String> alternatives = new ArrayList<>();
+                int start = 0;
+                for (int i = 0; i < regex.length(); i++) {
+                    char c = regex.charAt(i);
+                    if (c == '\\') {
+                        i++;
+                    } else if ((c == '(') || (c == '[') || (c == '{')) {
+                        return null;
+                    } else if (c == '|') {
+                        alternatives.add(regex.substring(start, i));
+                        start = i + 1;
+                    }
+                }
+                alternatives.add(regex.substring(start));
+                return alternatives;
+            }
+
+            private static boolean isEscaped(String s, int index) {
+                int n = 0;
+                for (int i = index - 1; (i >= 0) && (s.charAt(i) == '\\'); i--) {
+                    n++;
+                }
+                return (n % 2) == 1;
+            }
+
+            /**
+             * Returns the literal between from and to or null if it contains
+             * any meta character.
+             */
+            private static String unescape(String s, int from, int to) {
+                StringBuilder literal = new StringBuilder(to - from);
+                for (int i = from; i < to; i++) {
+                    char c = s.charAt(i);
+                    if (c == '\\') {
+                        if ((i + 1 >= to) || Character.isLetterOrDigit(s.charAt(i + 1))) {
+                            return null;
+                        }
+                        literal.append(s.charAt(++i));
+                    } else if (".*+?^$|".indexOf(c) >= 0) {
+                        return null;
+                    } else {
+                        literal.append(c);
+                    }
+                }
+                return literal.toString();
+            }
+
+            private Rules build() {
+                return new Rules(this);
+            }
+
+        }
+
+    }
+
+    /**
+     * A regex which is only used if the name starts and ends with the
+     * literal parts of the glob.
+     */
+    private static final class Residual {
+
+        private final String prefix;
+        private final String suffix;
+        private final Pattern pattern;
+
+        private Residual(Pattern pattern) {
+            this("", "", pattern);
+        }
+
+        private Residual(String prefix, String suffix, Pattern pattern) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+            this.pattern = pattern;
+        }
+
+        private boolean matches(String name) {
+            return name.startsWith(prefix) && name.endsWith(suffix) && pattern.matcher(name).matches();
+        }
+
+    }
+
+    /**
+     * A node of the prefix trie. The children are stored in sorted arrays.
+     */
+    private static final class Node {
+
+        /** Marks that a prefix was matched. */
+        private static final Node MATCHED = new Node();
+        /** Marks that no prefix can match. */
+        private static final Node DEAD = new Node();
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private boolean terminal;
+
+        private boolean isDecided() {
+            return (this == MATCHED) || (this == DEAD);
+        }
+
+        private boolean isLeaf() {
+            return keys.length == 0;
+        }
+
+        private void add(String prefix) {
+            Node node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.getOrAddChild(prefix.charAt(i));
+            }
+            node.terminal = true;
+        }
+
+        private Node getOrAddChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int pos = -i - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, pos);
+            System.arraycopy(children, 0, newChildren, 0, pos);
+            newKeys[pos] = c;
+            newChildren[pos] = child;
+            System.arraycopy(keys, pos, newKeys, pos + 1, keys.length - pos);
+            System.arraycopy(children, pos, newChildren, pos + 1, children.length - pos);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        private Node getChild(char c) {
+            if (keys.length == 1) {
+                return (keys[0] == c) ? children[0] : null;
+            }
+            int k = Arrays.binarySearch(keys, c);
+            return (k < 0) ? null : children[k];
+        }
+
+        /**
+         * Walks from the start node along the characters of s between from
+         * and to.
+         *
+         * @return {@link #MATCHED} if a prefix was matched, {@link #DEAD} if
+         *         no prefix can match or the node at the end of s
+         */
+        private static Node walk(Node start, String s, int from, int to) {
+            if ((start == null) || (start == MATCHED) || (start == DEAD)) {
+                return (start == null) ? DEAD : start;
+            }
+            Node node = start;
+            for (int i = from; i < to; i++) {
+                if (node.terminal) {
+                    return MATCHED;
+                }
+                node = node.getChild(s.charAt(i));
+                if (node == null) {
+                    return DEAD;
+                }
+            }
+            return node.terminal ? MATCHED : node;
+        }
+
     }
 
 }
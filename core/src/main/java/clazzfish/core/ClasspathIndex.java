@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core;
+
+import clazzfish.core.util.NestedArchive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+
+/**
+ * The ClasspathIndex is the process-wide index of the classpath elements. Each
+ * element (directory, archive or nested archive) is scanned only once and the
+ * found elements are served to all consumers: the {@link Digger} of the
+ * statistic and the agent as well as the ClasspathDigger and
+ * ResourcepathDigger of the monitor module.
+ * <p>
+ * If several threads ask for the same element at the same time only one of
+ * them scans it, the others wait for the result. An element is scanned
+ * again if the modification time or size of the directory or (outer)
+ * archive has changed. Changes deep inside a directory tree are not
+ * detected - use {@link #clear()} in this case.
+ * </p>
+ * <p>
+ * The entries with sizes and CRCs (see {@link #getEntries(String)}) are read
+ * on demand only, because most consumers need the names only.
+ * </p>
+ * <p>
+ * The scanned elements and entries are only softly referenced. So they are
+ * kept as long as there is enough memory (e.g. for a second digger or the
+ * next scan of the monitor), but they do not stay in memory for the whole
+ * lifetime of the process once the consumers have built their tables. If
+ * they were collected the element is scanned again on demand.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ClasspathIndex {
+
+    private static final Logger log = Logger.getLogger(ClasspathIndex.class.getName());
+    /** The index which is shared by all consumers of this process. */
+    public static final ClasspathIndex DEFAULT = new ClasspathIndex();
+
+    private final Map<String, Scan> scans = new ConcurrentHashMap<>();
+
+    ClasspathIndex() {
+    }
+
+    /**
+     * Gets the elements of the given classpath element. For a directory
+     * these are the relative pathes of the files (e.g. "/log4j2.xml"), for an
+     * archive the names of the entries (e.g. "META-INF/MANIFEST.MF").
+     *
+     * @param path classpath element, e.g. "a.jar" or "a.war!/WEB-INF/classes"
+     * @return the (unmodifiable) elements
+     * @throws IOException if the element cannot be read
+     */
+    public Collection<String> getElements(String path) throws IOException {
+        Scan scan = getScan(path);
+        return get(scan, scan.elements);
+    }
+
+    /**
+     * Gets the entries of the given classpath element with name, size and
+     * CRC. For files of a directory the CRC is not calculated (-1).
+     *
+     * @param path classpath element, e.g. "a.jar" or "a.war!/WEB-INF/classes"
+     * @return the (unmodifiable) entries
+     * @throws IOException if the element cannot be read
+     */
+    public List<ZipEntry> getEntries(String path) throws IOException {
+        Scan scan = getScan(path);
+        return get(scan, scan.entries);
+    }
+
+    /**
+     * Gets the number of scanned classpath elements.
+     *
+     * @return number of scanned elements
+     */
+    public int size() {
+        return scans.size();
+    }
+
+    /**
+     * Drops all scanned elements.
+     */
+    public void clear() {
+        scans.clear();
+    }
+
+    private Scan getScan(String path) {
+        long stamp = getStamp(path);
+        Scan scan = scans.computeIfAbsent(path, p -> new Scan(p, stamp));
+        if (scan.stamp != stamp) {
+            log.log(Level.FINE, "{0} has changed and will be scanned again.", path);
+            Scan newScan = new Scan(path, stamp);
+            scan = scans.merge(path, newScan, (old, n) -> (old.stamp == stamp) ? old : n);
+        }
+        return scan;
+    }
+
+    private static long getStamp(String path) {
+        int i = path.indexOf('!');
+        File file = new File((i < 0) ? path : path.substring(0, i));
+        return file.lastModified() * 31 + file.length();
+    }
+
+    private <T> T get(Scan scan, SoftResult<T> result) throws IOException {
+        String path = scan.path;
+        try {
+            return result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while scanning " + path, ex);
+        } catch (ExecutionException ex) {
+            scans.remove(path, scan);
+            Throwable cause = ex.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("cannot scan " + path, cause);
+        }
+    }
+
+    private static Collection<String> scanElements(String path) throws IOException {
+        File file = new File(path);
+        if (file.isDirectory()) {
+            Collection<String> resources = new ResourceWalker(file, "").getResources();
+            return Collections.unmodifiableList(new ArrayList<>(resources));
+        }
+        return Collections.unmodifiableCollection(Digger.readElementsFromNestedArchive(file));
+    }
+
+    private static List<ZipEntry> scanEntries(String path) throws IOException {
+        File file = new File(path);
+        if (file.isDirectory()) {
+            Path dir = file.toPath();
+            List<ZipEntry> entries = new ArrayList<>();
+            for (String resource : new ResourceWalker(file, "").getResources()) {
+                ZipEntry entry = new ZipEntry(resource);
+                entry.setSize(Files.size(dir.resolve(resource.substring(1))));
+                entries.add(entry);
+            }
+            return Collections.unmodifiableList(entries);
+        }
+        String archivePath = Digger.stripPath(file);
+        if (Digger.isArchive(archivePath)) {
+            return Collections.unmodifiableList(NestedArchive.readEntries(new File(archivePath)));
+        }
+        String archiveDir = Digger.getArchiveDir(archivePath);
+        String relPath = archiveDir.startsWith("/") ? archiveDir.substring(1) : archiveDir;
+        List<ZipEntry> entries = new ArrayList<>();
+        for (ZipEntry entry : NestedArchive.readEntries(new File(Digger.getArchivePath(archivePath)))) {
+            if (entry.getName().startsWith(relPath)) {
+                ZipEntry relEntry = new ZipEntry(entry.getName().substring(relPath.length()));
+                if (entry.getSize() >= 0) {
+                    relEntry.setSize(entry.getSize());
+                }
+                if (entry.getCrc() >= 0) {
+                    relEntry.setCrc(entry.getCrc());
+                }
+                relEntry.setCompressedSize(entry.getCompressedSize());
+                entries.add(relEntry);
+            }
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " with " + size() + " element(s)";
+    }
+
+
+
+    /**
+     * The Scan of a single classpath element. The scans are started by the
+     * first thread which needs the result.
+     */
+    private static final class Scan {
+
+        private final String path;
+        private final long stamp;
+        private final SoftResult<Collection<String>> elements;
+        private final SoftResult<List<ZipEntry>> entries;
+
+        private Scan(String path, long stamp) {
+            this.path = path;
+            this.stamp = stamp;
+            this.elements = new SoftResult<>(() -> scanElements(path));
+            this.entries = new SoftResult<>(() -> scanEntries(path));
+        }
+
+    }
+
+
+
+    /**
+     * A result which is computed once by a {@link FutureTask} (other threads
+     * wait for it) and then only softly referenced. If the result was
+     * collected by the GC it is computed again.
+     */
+    private static final class SoftResult<T> {
+
+        private final Callable<T> loader;
+        private FutureTask<T> task;
+        private SoftReference<T> result = new SoftReference<>(null);
+
+        private SoftResult(Callable<T> loader) {
+            this.loader = loader;
+        }
+
+        private T get() throws InterruptedException, ExecutionException {
+            FutureTask<T> running;
+            synchronized (this) {
+                T value = result.get();
+                if (value != null) {
+                    return value;
+                }
+                if (task == null) {
+                    task = new FutureTask<>(loader);
+                }
+                running = task;
+            }
+            running.run();
+            try {
+                T value = running.get();
+                synchronized (this) {
+                    if (task == running) {
+                        result = new SoftReference<>(value);
+                        task = null;
+                    }
+                }
+                return value;
+            } catch (ExecutionException ex) {
+                synchronized (this) {
+                    if (task == running) {
+                        task = null;
+                    }
+                }
+                throw ex;
+            }
+        }
+
+    }
+
+}
@@ -21,9 +21,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Properties;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
 import java.util.logging.Logger;
 
 /**
@@ -41,6 +41,28 @@ public final class Config {
     public static final String DUMP_URI = "clazzfish.dump.uri";
     /** Pattern of the resources (and classes) which should be filtered out. */
     public static final String PATTERN_EXCLUDE = "clazzfish.pattern.exclude";
+    /** Number of threads used to scan the classpath (default: number of processors). */
+    public static final String DIGGER_PARALLELISM = "clazzfish.digger.parallelism";
+    /** Number of threads for background tasks like the scan of the classpath (default: 2). */
+    public static final String EXECUTOR_THREADS = "clazzfish.executor.threads";
+    /** Set it to true to use virtual threads for background tasks if available (default: false). */
+    public static final String EXECUTOR_VIRTUAL = "clazzfish.executor.virtual";
+    /** Set it to true to cache the elements of the archives on disk (default: false). */
+    public static final String INDEX_CACHE = "clazzfish.index.cache";
+    /** Set it to true to compress binary dumps (default: false). */
+    public static final String DUMP_COMPRESSED = "clazzfish.dump.compressed";
+    /** Maximal time in ms to wait for the lock of the dump file (default: 2000). */
+    public static final String DUMP_LOCK_TIMEOUT = "clazzfish.dump.lock.timeout";
+    /** Set it to true to append only the classes loaded in this run at shutdown (default: false). */
+    public static final String DUMP_DELTA = "clazzfish.dump.delta";
+    /** Number of delta segments which triggers a compaction (default: 100). */
+    public static final String DUMP_COMPACTION_THRESHOLD = "clazzfish.dump.compaction.threshold";
+    /** Interval in seconds for periodic dumps of the agent (default: 0 = disabled). */
+    public static final String DUMP_INTERVAL = "clazzfish.dump.interval";
+    /** Comma separated globs of the classes which should be included (default: all). */
+    public static final String GLOB_INCLUDE = "clazzfish.glob.include";
+    /** Comma separated globs of the classes which should be filtered out (default: none). */
+    public static final String GLOB_EXCLUDE = "clazzfish.glob.exclude";
     /** NULL URI. */
     public static final URI NULL_URI = URI.create("dev://null");
     private final Properties properties;
@@ -242,6 +264,200 @@ public final class Config {
         }
     }
 
+    /**
+     * Gets the number of threads which are used to scan the classpath. If
+     * it is not set or invalid the number of available processors is
+     * returned.
+     *
+     * @return parallelism (at least 1)
+     * @since 3.1
+     */
+    public int getDiggerParallelism() {
+        return Math.max(1, getInt(DIGGER_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Gets the number of threads of the executor for background tasks (e.g.
+     * the scan of the classpath at startup). The number is limited to give
+     * the application priority during its startup.
+     *
+     * @return number of threads (at least 1, 2 by default)
+     * @since 3.1
+     */
+    public int getExecutorThreads() {
+        return Math.max(1, getInt(EXECUTOR_THREADS, 2));
+    }
+
+    /**
+     * Returns true if virtual threads should be used for background tasks.
+     * This works only on Java 21 or newer.
+     *
+     * @return true if virtual threads should be used
+     * @since 3.1
+     */
+    public boolean isExecutorVirtual() {
+        return getBoolean(EXECUTOR_VIRTUAL);
+    }
+
+    /**
+     * Returns true if the elements of the archives in the classpath should be
+     * cached on disk below {@link #getDumpDir()}.
+     *
+     * @return true if the index cache is enabled
+     * @since 3.1
+     */
+    public boolean isIndexCacheEnabled() {
+        return getBoolean(INDEX_CACHE);
+    }
+
+    /**
+     * Returns true if the statistics should be compressed if they are dumped
+     * in the binary format (see {@link clazzfish.core.spi.BinXPorter}).
+     *
+     * @return true if binary dumps should be compressed
+     * @since 3.1
+     */
+    public boolean isDumpCompressed() {
+        return getBoolean(DUMP_COMPRESSED);
+    }
+
+    /**
+     * Gets the maximal time to wait for the lock of the dump file. If the
+     * lock cannot be acquired in this time the statistic is written into a
+     * separate segment file which is merged by the next export.
+     *
+     * @return the lock timeout (2 seconds by default)
+     * @since 3.1
+     */
+    public Duration getDumpLockTimeout() {
+        return Duration.ofMillis(Math.max(0, getLong(DUMP_LOCK_TIMEOUT, 2000)));
+    }
+
+    /**
+     * Returns true if the statistic should be dumped as delta, i.e. only the
+     * classes loaded in this run are appended as small segment.
+     *
+     * @return true if the delta mode is enabled
+     * @since 3.1
+     */
+    public boolean isDumpDelta() {
+        return getBoolean(DUMP_DELTA);
+    }
+
+    /**
+     * Gets the number of delta segments which triggers the compaction of
+     * the statistic.
+     *
+     * @return the compaction threshold (100 by default)
+     * @since 3.1
+     */
+    public int getDumpCompactionThreshold() {
+        return Math.max(1, getInt(DUMP_COMPACTION_THRESHOLD, 100));
+    }
+
+    /**
+     * Gets the interval for periodic dumps of the statistic. The value is
+     * given in seconds or as ISO-8601 duration (e.g. "PT5M").
+     *
+     * @return the interval or {@link Duration#ZERO} if periodic dumps are
+     *         disabled (default)
+     * @since 3.1
+     */
+    public Duration getDumpInterval() {
+        return getDuration(DUMP_INTERVAL, Duration.ZERO);
+    }
+
+    /**
+     * Gets the globs of the classes which should be included. A "*" matches
+     * any character but a dot, "**" matches any character, "?" matches a
+     * single character but a dot (e.g. "com.example.**").
+     *
+     * @return the include globs (empty if all classes should be included)
+     * @see ClassFilter
+     * @since 3.1
+     */
+    public List<String> getGlobIncludes() {
+        return getList(GLOB_INCLUDE);
+    }
+
+    /**
+     * Gets the globs of the classes which should be filtered out. They are
+     * used in addition to {@link #PATTERN_EXCLUDE}.
+     *
+     * @return the exclude globs (empty by default)
+     * @see ClassFilter
+     * @since 3.1
+     */
+    public List<String> getGlobExcludes() {
+        return getList(GLOB_EXCLUDE);
+    }
+
+    private String getValue(String key) {
+        String value = getEnvironment(key);
+        return (value == null) ? properties.getProperty(key) : value;
+    }
+
+    private int getInt(String key, int defaultValue) {
+        return getValue(key, s -> Integer.parseInt(s.trim()), defaultValue);
+    }
+
+    private long getLong(String key, long defaultValue) {
+        return getValue(key, s -> Long.parseLong(s.trim()), defaultValue);
+    }
+
+    private boolean getBoolean(String key) {
+        return Boolean.parseBoolean(getValue(key));
+    }
+
+    private Duration getDuration(String key, Duration defaultValue) {
+        return getValue(key, Config::toDuration, defaultValue);
+    }
+
+    private <T> T getValue(String key, Function<String, T> parser, T defaultValue) {
+        String value = getValue(key);
+        if (value != null) {
+            try {
+                return parser.apply(value);
+            } catch (IllegalArgumentException ex) {
+                log.warning(String.format("%s=%s is ignored (%s).", key, value, ex.getMessage()));
+            }
+        }
+        return defaultValue;
+    }
+
+    private List<String> getList(String key) {
+        String value = getValue(key);
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String s : value.split(",")) {
+                if (!s.isBlank()) {
+                    values.add(s.trim());
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Converts the given value (seconds or ISO-8601 duration like "PT5M")
+     * into a duration.
+     *
+     * @param value e.g. "300" or "PT5M"
+     * @return the duration (never negative)
+     * @throws IllegalArgumentException if the value can't be converted
+     * @since 3.1
+     */
+    public static Duration toDuration(String value) {
+        String s = value.trim();
+        try {
+            Duration duration = s.chars().allMatch(Character::isDigit) ? Duration.ofSeconds(Long.parseLong(s))
+                    : Duration.parse(s);
+            return duration.isNegative() ? Duration.ZERO : duration;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("not a duration: " + value, ex);
+        }
+    }
+
     public Properties getProperties() {
         return properties;
     }
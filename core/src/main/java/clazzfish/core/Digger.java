@@ -19,6 +19,11 @@ package clazzfish.core;
 
 import clazzfish.core.jmx.ClassDiagnostic;
 import clazzfish.core.stat.ClazzRecord;
+import clazzfish.core.stat.ClazzTable;
+import clazzfish.core.util.ArchiveHandle;
+import clazzfish.core.util.ArchiveIndex;
+import clazzfish.core.util.ClazzFishExecutor;
+import clazzfish.core.util.NestedArchive;
 import clazzfish.core.util.NestedZipFile;
 
 import java.io.File;
@@ -27,11 +32,15 @@ import java.lang.instrument.Instrumentation;
 import java.net.URI;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 
 /**
@@ -53,12 +62,8 @@ public class Digger {
 
     private static final Logger log = Logger.getLogger(Digger.class.getName());
     private final ClassLoading classLoading;
-    private final FutureTask<AllClazzRecords> allClazzRecords;
-
-    {
-        allClazzRecords = new FutureTask<>(this::getAllClazzRecords);
-        Executors.newCachedThreadPool().execute(allClazzRecords);
-    }
+    private final FutureTask<AllClazzRecords> allClazzRecords = new FutureTask<>(this::getAllClazzRecords);
+    private final AtomicBoolean prewarmed = new AtomicBoolean();
 
     public Digger() {
         this(new ClassDiagnostic());
@@ -68,30 +73,154 @@ public class Digger {
         this.classLoading = classLoading;
     }
 
+    /**
+     * Starts the scan of the classpath in the background (see
+     * {@link ClazzFishExecutor}). Without this call the classpath is scanned
+     * on demand, i.e. by the first call of {@link #getClazzTable()},
+     * {@link #getClassRecords()} or {@link #getShadedRecords()}. So a
+     * short-living JVM which never needs the result does not pay for the
+     * scan.
+     *
+     * @since 3.1
+     */
+    public void prewarm() {
+        if (prewarmed.compareAndSet(false, true)) {
+            ClazzFishExecutor.DEFAULT.execute(allClazzRecords);
+        }
+    }
+
     private AllClazzRecords getAllClazzRecords() {
-        AllClazzRecords clazzRecords = new AllClazzRecords();
+        ClazzTable.Builder builder = ClazzTable.builder();
+        Set<ClazzRecord> shadedRecords = new TreeSet<>();
         Set<String> uniqueClassnames = new HashSet<>();
-        for (String path : getClasspath()) {
-            File f = new File(path);
-            Set<String> classes = getAllClasses(f);
-            URI uri = f.toURI();
-            for (String className : classes) {
-                ClazzRecord cr = new ClazzRecord(uri, className);
-                if (uniqueClassnames.contains(className)) {
-                    clazzRecords.shadedRecords.add(cr);
+        String[] classpath = getClasspath();
+        List<Set<String>> allClasses = getAllClasses(classpath);
+        for (int i = 0; i < classpath.length; i++) {
+            URI uri = new File(classpath[i]).toURI();
+            List<String> classes = new ArrayList<>(allClasses.get(i).size());
+            for (String className : allClasses.get(i)) {
+                if (uniqueClassnames.add(className)) {
+                    classes.add(className);
                 } else {
-                    uniqueClassnames.add(className);
-                    clazzRecords.clazzRecords.add(cr);
+                    shadedRecords.add(new ClazzRecord(uri, className));
                 }
             }
+            builder.add(uri, classes);
+        }
+        builder.add(URI.create("jrt:/java.instrument"), Instrumentation.class.getName());
+        return new AllClazzRecords(builder.build(), shadedRecords);
+    }
+
+    /**
+     * Scans each element of the classpath in its own task. The result list
+     * has the same order as the classpath so that the first element wins
+     * if a class is found more than once.
+     * <p>
+     * The outer archives of nested classpath elements (e.g. the fat jar of
+     * "app.jar!/BOOT-INF/lib/lib.jar") are held open during the scan. So
+     * a fat jar is opened and its central directory is read only once and
+     * not once for each nested jar.
+     * </p>
+     */
+    private List<Set<String>> getAllClasses(String[] classpath) {
+        List<ArchiveHandle> handles = openOuterArchives(classpath);
+        try {
+            return scanAllClasses(classpath);
+        } finally {
+            handles.forEach(ArchiveHandle::close);
+        }
+    }
+
+    private static List<ArchiveHandle> openOuterArchives(String[] classpath) {
+        Set<String> outerArchives = new LinkedHashSet<>();
+        for (String path : classpath) {
+            int i = path.indexOf('!');
+            if (i > 0) {
+                outerArchives.add(path.substring(0, i));
+            }
+        }
+        List<ArchiveHandle> handles = new ArrayList<>(outerArchives.size());
+        for (String archive : outerArchives) {
+            handles.add(ArchiveHandle.open(new File(archive)));
+        }
+        return handles;
+    }
+
+    /**
+     * The elements are scanned by the calling thread and by up to
+     * parallelism - 1 helpers of the shared {@link ClazzFishExecutor}. Each
+     * of them takes the next element which is not yet scanned. A helper
+     * which is not started when the caller is finished is run by the
+     * caller (and finds nothing to do). So the bounded executor cannot
+     * block the scan.
+     */
+    private List<Set<String>> scanAllClasses(String[] classpath) {
+        int parallelism = Math.min(getParallelism(), classpath.length);
+        List<Set<String>> allClasses = new ArrayList<>(classpath.length);
+        if (parallelism <= 1) {
+            for (String path : classpath) {
+                allClasses.add(getAllClasses(new File(path)));
+            }
+            return allClasses;
+        }
+        AtomicReferenceArray<Set<String>> results = new AtomicReferenceArray<>(classpath.length);
+        AtomicInteger next = new AtomicInteger();
+        Runnable scanner = () -> {
+            for (int i = next.getAndIncrement(); i < classpath.length; i = next.getAndIncrement()) {
+                results.set(i, getAllClasses(new File(classpath[i])));
+            }
+        };
+        List<FutureTask<Void>> helpers = new ArrayList<>(parallelism - 1);
+        for (int i = 1; i < parallelism; i++) {
+            FutureTask<Void> helper = new FutureTask<>(scanner, null);
+            helpers.add(helper);
+            ClazzFishExecutor.DEFAULT.execute(helper);
+        }
+        scanner.run();
+        for (FutureTask<Void> helper : helpers) {
+            join(helper);
         }
-        clazzRecords.clazzRecords.add(new ClazzRecord(URI.create("jrt:/java.instrument"), Instrumentation.class.getName()));
-        return clazzRecords;
+        for (int i = 0; i < classpath.length; i++) {
+            allClasses.add(results.get(i));
+        }
+        log.log(Level.FINE, "{0} classpath elements scanned with parallelism {1}.",
+                new Object[]{classpath.length, parallelism});
+        return allClasses;
+    }
+
+    private static void join(FutureTask<Void> task) {
+        try {
+            ClazzFishExecutor.get(task);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("scan of classpath was interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException("scan of classpath failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Gets the number of threads which are used to scan the classpath. As
+     * default the value of {@link Config#getDiggerParallelism()} is returned.
+     *
+     * @return number of threads
+     * @since 3.1
+     */
+    protected int getParallelism() {
+        return Config.DEFAULT.getDiggerParallelism();
     }
 
     /**
      * Converts a resource (e.g. "/java/lang/String.class") into its classname
      * ("java.lang.String").
+     * <p>
+     * Since 3.1 the separators ('/' and '\\') are replaced in one pass over
+     * the characters of the resource without a regular expression, because
+     * this method is called for each class during the scan of the classpath.
+     * </p>
      *
      * @param name e.g. "/java/lang/String.class"
      *
@@ -101,16 +230,50 @@ public class Digger {
         if (name == null) {
             return null;
         }
-        if (name.endsWith(".class")) {
-            int lastdot = name.lastIndexOf('.');
-            String classname = name.substring(0, lastdot).replaceAll("[/\\\\]", "\\.");
-            if (classname.startsWith(".")) {
-                classname = classname.substring(1);
-            }
-            return classname;
-        } else {
+        if (!name.endsWith(".class")) {
             return name;
         }
+        int end = name.length() - ".class".length();
+        int start = 0;
+        if ((end > 0) && isSeparatorOrDot(name.charAt(0))) {
+            start = 1;
+        }
+        char[] chars = new char[end - start];
+        name.getChars(start, end, chars, 0);
+        for (int i = 0; i < chars.length; i++) {
+            if ((chars[i] == '/') || (chars[i] == '\\')) {
+                chars[i] = '.';
+            }
+        }
+        return new String(chars);
+    }
+
+    private static boolean isSeparatorOrDot(char c) {
+        return (c == '/') || (c == '\\') || (c == '.');
+    }
+
+    /**
+     * Converts a classname (e.g. "java.lang.String") into its resource
+     * ("java/lang/String.class"). This is the counterpart of
+     * {@link #resourceToClass(String)}.
+     *
+     * @param name e.g. "java.lang.String"
+     * @return e.g. "java/lang/String.class"
+     * @since 3.1
+     */
+    public static String classToResource(String name) {
+        if (name == null) {
+            return null;
+        }
+        char[] chars = new char[name.length() + ".class".length()];
+        name.getChars(0, name.length(), chars, 0);
+        for (int i = 0; i < name.length(); i++) {
+            if (chars[i] == '.') {
+                chars[i] = '/';
+            }
+        }
+        ".class".getChars(0, ".class".length(), chars, name.length());
+        return new String(chars);
     }
 
     /**
@@ -136,12 +299,10 @@ public class Digger {
      * @return classes of the classpath
      */
     public String[] getClasses() {
-        Set<ClazzRecord> clazzRecords = getAllClazzRecords().clazzRecords;
+        ClazzTable clazzRecords = getAllClazzRecords().clazzRecords;
         String[] classes = new String[clazzRecords.size()];
-        int i = 0;
-        for (ClazzRecord cr : clazzRecords) {
-            classes[i] = cr.classname();
-            i++;
+        for (int i = 0; i < classes.length; i++) {
+            classes[i] = clazzRecords.getClassname(i);
         }
         return classes;
     }
@@ -154,6 +315,18 @@ public class Digger {
      * @return classes of the classpath (without shadowed classes)
      */
     public Set<ClazzRecord> getClassRecords() {
+        return getClazzTable();
+    }
+
+    /**
+     * Digs into the classpath and returns the found classes as
+     * {@link ClazzTable}. Shaded classes (see {@link #getShadedRecords()})
+     * are not part of the returned table.
+     *
+     * @return classes of the classpath (without shadowed classes)
+     * @since 3.1
+     */
+    public ClazzTable getClazzTable() {
         return accessAllClassRecords().clazzRecords;
     }
 
@@ -171,7 +344,7 @@ public class Digger {
 
     private AllClazzRecords accessAllClassRecords() {
         try {
-            return allClazzRecords.get();
+            return ClazzFishExecutor.get(allClazzRecords);
         } catch (InterruptedException e) {
             log.log(Level.WARNING, String.format("Was interrupted before got result from %s:", allClazzRecords), e);
             Thread.currentThread().interrupt();
@@ -187,33 +360,26 @@ public class Digger {
         return classSet;
     }
 
+    /**
+     * The elements of the classpath element are taken from the
+     * {@link ClasspathIndex#DEFAULT}, i.e. each element is scanned only once
+     * even if there are several diggers (e.g. from the monitor module).
+     */
     private static void addClasses(final Set<String> classSet, final File path) {
         log.finer(String.format("Adding classes from %s...", path));
         try {
-            if (path.isDirectory()) {
-                addClassesFromDir(classSet, path);
-            } else {
-                addElementsFromArchive(classSet, path, ".class");
-            }
+            addClasses(classSet, ClasspathIndex.DEFAULT.getElements(path.getPath()));
         } catch (IOException ioe) {
             log.log(Level.FINER, String.format("Cannot add classes from %s:", path.getAbsolutePath()), ioe);
         }
     }
 
-    private static void addClassesFromDir(final Set<String> classSet, final File dir) throws IOException {
-        ResourceWalker classWalker = new ResourceWalker(dir);
-        Collection<String> classes = classWalker.getClasses();
-        classSet.addAll(classes);
-    }
-
-    private static void addElementsFromArchive(Collection<String> elements, File archive, String suffix)
-            throws IOException {
-        Collection<String> allElements = readElementsFromNestedArchive(archive);
-        for(String resource : allElements) {
-            if (resource.endsWith(suffix)) {
+    private static void addClasses(Collection<String> classes, Collection<String> elements) {
+        for (String resource : elements) {
+            if (resource.endsWith(".class")) {
                 String classname = resourceToClass(resource);
                 if (ClassFilter.DEFAULT.isIncluded(classname)) {
-                    elements.add(resourceToClass(classname));
+                    classes.add(classname);
                 }
             }
         }
@@ -227,16 +393,41 @@ public class Digger {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static Collection<String> readElementsFromNestedArchive(File archive) throws IOException {
+        return readElementsFromNestedArchive(archive, ArchiveIndex.DEFAULT);
+    }
+
+    /**
+     * Read elements from nested archive. If the given index is enabled and
+     * contains the archive the elements are taken from the index. Otherwise
+     * the archive is read and the elements are stored in the index.
+     *
+     * @param archive a JAR, WAR or EAR archive
+     * @param index   the index used as cache
+     * @return the digged resources
+     * @throws IOException Signals that an I/O exception has occurred.
+     * @since 3.1
+     */
+    public static Collection<String> readElementsFromNestedArchive(File archive, ArchiveIndex index)
+            throws IOException {
+        Collection<String> cached = index.get(archive);
+        if (cached != null) {
+            return cached;
+        }
+        ArchiveIndex.Stamp stamp = ArchiveIndex.Stamp.of(archive);
         String path = stripPath(archive);
         String archiveDir = "";
-        if (!path.toLowerCase().matches(".*\\.[jwe]ar")) {
+        if (!isArchive(path)) {
             archiveDir = getArchiveDir(path);
             path = getArchivePath(path);
         }
-        return readElementsFromArchive(new File(path), archiveDir);
+        return readElementsFromArchive(new File(path), archiveDir, elements -> index.put(archive, stamp, elements));
     }
 
-    private static String stripPath(File archive) {
+    static boolean isArchive(String path) {
+        return path.toLowerCase().matches(".*\\.[jwe]ar");
+    }
+
+    static String stripPath(File archive) {
         String filename = archive.getPath();
         if (filename.endsWith("!")) {
             return filename.substring(0, filename.length() - 1);
@@ -244,26 +435,27 @@ public class Digger {
         return filename;
     }
 
-    private static String getArchiveDir(String path) {
+    static String getArchiveDir(String path) {
         int i = path.lastIndexOf('!');
         String dir = path.substring(i+1);
         return dir.replace('\\', '/');
     }
 
-    private static String getArchivePath(String path) {
+    static String getArchivePath(String path) {
         int i = path.lastIndexOf('!');
         return path.substring(0,i);
     }
 
-    private static Collection<String> readElementsFromArchive(File archive, String archiveDir)
-            throws IOException {
+    /**
+     * Reads the elements of the given archive. Only if all elements can be
+     * read they are passed to the given consumer.
+     */
+    private static Collection<String> readElementsFromArchive(File archive, String archiveDir,
+            Consumer<Collection<String>> completed) throws IOException {
         Collection<String> elements = new ArrayList<>();
-        try (ZipFile zipFile = new NestedZipFile(archive)) {
+        try {
             String relPath = archiveDir.startsWith("/") ? archiveDir.substring(1) : archiveDir;
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                String name = entry.getName();
+            for (String name : readEntryNames(archive)) {
                 if (name.startsWith(relPath)) {
                     elements.add(name.substring(relPath.length()));
                 }
@@ -271,15 +463,43 @@ public class Digger {
         } catch (RuntimeException ex) {
             log.warning(String.format("Could not read all entries in %s (%s).", archive, ex.getMessage()));
             log.log(Level.FINE, "Details:", ex);
+            return elements;
         }
         log.finer(String.format("%d element(s) read from %s.", elements.size(), archive));
+        completed.accept(elements);
         return elements;
     }
 
+    /**
+     * Reads the entry names in memory. Only for archives which are not
+     * supported by {@link NestedArchive} (e.g. ZIP64) the slower
+     * {@link NestedZipFile} with its temporary files is used.
+     */
+    private static List<String> readEntryNames(File archive) throws IOException {
+        try {
+            return NestedArchive.readEntryNames(archive);
+        } catch (ZipException ex) {
+            log.log(Level.FINE, "Will use NestedZipFile for " + archive + ":", ex);
+        }
+        List<String> names = new ArrayList<>();
+        try (ZipFile zipFile = new NestedZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                names.add(entries.nextElement().getName());
+            }
+        }
+        return names;
+    }
+
 
     private static class AllClazzRecords {
-        public Set<ClazzRecord> clazzRecords = new TreeSet<>();
-        public Set<ClazzRecord> shadedRecords = new TreeSet<>();
+        private final ClazzTable clazzRecords;
+        private final Set<ClazzRecord> shadedRecords;
+
+        private AllClazzRecords(ClazzTable clazzRecords, Set<ClazzRecord> shadedRecords) {
+            this.clazzRecords = clazzRecords;
+            this.shadedRecords = shadedRecords;
+        }
     }
 
 }
@@ -17,20 +17,35 @@
  */
 package clazzfish.core;
 
+import clazzfish.core.util.ClazzFishExecutor;
+
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * his class scans a sub directory for a given suffix. It is a re-implentation
  * of the ResourceWalker in the monitor package but without dependencies to
  * commons-io.
+ * <p>
+ * Since 3.1 the directories are walked with
+ * {@link Files#walkFileTree(Path, Set, int, FileVisitor)}, i.e. the file
+ * attributes of the walk are reused and the suffix is checked on the name of
+ * the path. Each directory is walked in its own fork/join task (see
+ * {@link Config#getDiggerParallelism()}). The tasks are forked into the
+ * shared pool of the {@link ClazzFishExecutor} (see
+ * {@link ClazzFishExecutor#getForkJoinPool()}) or into the
+ * {@link ForkJoinPool} the walker is called from.
+ * </p>
  *
  * @author oboehm
  * @since 3.0 (26.09.25)
@@ -38,7 +53,8 @@ import java.util.stream.Stream;
 public class ResourceWalker {
 
     private final Path startDir;
-    private final FileFilter fileFilter;
+    private final Predicate<Path> fileFilter;
+    private final int parallelism;
 
     /**
      * Instantiates a new Resource walker for all resources.
@@ -46,7 +62,7 @@ public class ResourceWalker {
      * @param dir the start dir
      */
     public ResourceWalker(File dir) {
-        this(dir, getAllResourcesFilter());
+        this(dir, getAllResourcesFilter(), Config.DEFAULT.getDiggerParallelism());
     }
 
    /**
@@ -56,20 +72,35 @@ public class ResourceWalker {
      * @param suffix file suffix, e.g. ".xml"
      */
     public ResourceWalker(File dir, String suffix) {
-        this(dir, getFileFilter(suffix));
+        this(dir, suffix, Config.DEFAULT.getDiggerParallelism());
+    }
+
+    /**
+     * Instantiates a new resource walker for resources with the given suffix
+     * which uses the given number of threads.
+     *
+     * @param dir         the start dir
+     * @param suffix      file suffix, e.g. ".xml"
+     * @param parallelism 1 for a sequential walk, otherwise the walk uses the
+     *                    shared fork/join pool of the {@link ClazzFishExecutor}
+     * @since 3.1
+     */
+    public ResourceWalker(File dir, String suffix, int parallelism) {
+        this(dir, getFileFilter(suffix), parallelism);
     }
 
-    private ResourceWalker(File dir, FileFilter filter) {
+    private ResourceWalker(File dir, Predicate<Path> filter, int parallelism) {
         this.startDir = dir.toPath();
         this.fileFilter = filter;
+        this.parallelism = parallelism;
     }
 
-    private static FileFilter getFileFilter(String suffix) {
-        return file -> file.getName().endsWith(suffix);
+    private static Predicate<Path> getFileFilter(String suffix) {
+        return path -> path.getFileName().toString().endsWith(suffix);
     }
 
-    private static FileFilter getAllResourcesFilter() {
-        return file -> !file.getName().endsWith(".class");
+    private static Predicate<Path> getAllResourcesFilter() {
+        return path -> !path.getFileName().toString().endsWith(".class");
     }
 
     /**
@@ -90,24 +121,133 @@ public class ResourceWalker {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public Collection<String> getClasses() throws IOException {
-        Collection<String> resources = this.getResources(getFileFilter(".class"));
-        Collection<String> classes = new ArrayList<>(resources.size());
-        for (String res : resources) {
-            if (ClassFilter.DEFAULT.isIncluded(res)) {
-                classes.add(Digger.resourceToClass(res));
+        Collection<String> classes = ConcurrentHashMap.newKeySet();
+        walkClasses(classes::add);
+        return classes;
+    }
+
+    /**
+     * Walks thru the directories and passes each found resource to the
+     * given consumer. The resources are not collected, so this can be used
+     * for large directory trees (e.g. exploded WARs).
+     * <p>
+     * NOTE: The consumer is called from several threads if the walk is done
+     * in parallel. So it must be thread-safe.
+     * </p>
+     *
+     * @param consumer consumer for the resources, e.g. "/log4j2.xml"
+     * @throws IOException Signals that an I/O exception has occurred.
+     * @since 3.1
+     */
+    public void walkResources(Consumer<String> consumer) throws IOException {
+        walk(fileFilter, consumer);
+    }
+
+    /**
+     * Walks thru the directories and passes each found class to the given
+     * consumer. Classes which are not included by the
+     * {@link ClassFilter#DEFAULT} are skipped.
+     * <p>
+     * NOTE: The consumer is called from several threads if the walk is done
+     * in parallel. So it must be thread-safe.
+     * </p>
+     *
+     * @param consumer consumer for the classnames, e.g. "java.lang.String"
+     * @throws IOException Signals that an I/O exception has occurred.
+     * @since 3.1
+     */
+    public void walkClasses(Consumer<String> consumer) throws IOException {
+        walk(getFileFilter(".class"), res -> {
+            String classname = Digger.resourceToClass(res);
+            if (ClassFilter.DEFAULT.isIncluded(classname)) {
+                consumer.accept(classname);
             }
+        });
+    }
+
+    private Collection<String> getResources(Predicate<Path> filter) throws IOException {
+        Collection<String> resources = ConcurrentHashMap.newKeySet();
+        walk(filter, resources::add);
+        return resources;
+    }
+
+    private void walk(Predicate<Path> filter, Consumer<String> consumer) throws IOException {
+        WalkTask task = new WalkTask(startDir, filter, consumer, startDir.toString().length());
+        try {
+            if (parallelism <= 1) {
+                task.walk(false);
+            } else if (ForkJoinTask.inForkJoinPool()) {
+                task.invoke();
+            } else {
+                ClazzFishExecutor.DEFAULT.getForkJoinPool().invoke(task);
+            }
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
         }
-        return classes;
     }
 
-    private Collection<String> getResources(FileFilter filter) throws IOException {
-        int startDirnameLength = startDir.toString().length();
-        try (Stream<Path> stream = Files.walk(startDir)) {
-            return stream.filter(Files::isRegularFile)
-                    .filter(p -> filter.accept(p.toFile()))
-                    .map(p -> p.toString().substring(startDirnameLength))
-                    .collect(Collectors.toSet());
+    /**
+     * The WalkTask visits the files of a single directory. For each sub
+     * directory a new task is forked (or it is walked directly if the walk
+     * is sequential).
+     */
+    private static final class WalkTask extends RecursiveAction {
+
+        private static final Set<FileVisitOption> NO_OPTIONS = EnumSet.noneOf(FileVisitOption.class);
+        private final Path dir;
+        private final Predicate<Path> filter;
+        private final Consumer<String> consumer;
+        private final int startDirnameLength;
+
+        private WalkTask(Path dir, Predicate<Path> filter, Consumer<String> consumer, int startDirnameLength) {
+            this.dir = dir;
+            this.filter = filter;
+            this.consumer = consumer;
+            this.startDirnameLength = startDirnameLength;
         }
+
+        @Override
+        protected void compute() {
+            try {
+                walk(true);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void walk(boolean parallel) throws IOException {
+            List<WalkTask> subtasks = new ArrayList<>();
+            Files.walkFileTree(dir, NO_OPTIONS, 1, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    if (attrs.isDirectory()) {
+                        WalkTask task = new WalkTask(file, filter, consumer, startDirnameLength);
+                        if (parallel) {
+                            task.fork();
+                            subtasks.add(task);
+                        } else {
+                            task.walk(false);
+                        }
+                    } else if (isRegularFile(file, attrs) && filter.test(file)) {
+                        consumer.accept(file.toString().substring(startDirnameLength));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            for (WalkTask task : subtasks) {
+                task.join();
+            }
+        }
+
+        /**
+         * The attributes of the walk describe a symbolic link itself. So
+         * only for links the target is checked (as {@link Files#walk(Path,
+         * FileVisitOption...)} did before).
+         */
+        private static boolean isRegularFile(Path file, BasicFileAttributes attrs) {
+            return attrs.isRegularFile() || (attrs.isSymbolicLink() && Files.isRegularFile(file));
+        }
+
     }
 
 }
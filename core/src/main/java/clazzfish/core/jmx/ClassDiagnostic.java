@@ -22,10 +22,12 @@ import clazzfish.core.ClassLoading;
 import javax.management.JMException;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,9 +43,12 @@ public final class ClassDiagnostic implements ClassLoading {
 
     private static final Logger log = Logger.getLogger(ClassDiagnostic.class.getName());
     private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+    private static final Map<String, ClassReference> RESOLVED = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<Class<?>> CLEARED = new ReferenceQueue<>();
 
     /**
-     * This is a shortcut for the call of the preferred method.
+     * This is a shortcut for the call of the preferred method. The classes
+     * are not initialized by this call.
      *
      * @return an array of loaded classes
      */
@@ -95,33 +100,89 @@ public final class ClassDiagnostic implements ClassLoading {
                 log.log(Level.FINER, "\"{0}\" is ignored because it is not a real class name.", classes);
                 continue;
             }
-            try {
-                Class<?> cl = Class.forName(className);
+            Class<?> cl = forName(className);
+            if (cl != null) {
                 classes.add(cl);
-            } catch (ClassNotFoundException ex) {
-                log.log(Level.FINE, "Class \"{0}\" could not be loaded ({1}).", new Object[] {className, ex.getMessage()});
-                log.log(Level.FINER, "Details:", ex);
             }
         }
         return classes;
     }
 
+    /**
+     * Gets the loaded classes. Since 3.1 the classes are neither initialized
+     * nor loaded by this call (if only the name was known). The resolved
+     * classes are cached so that a repeated call does not cost a
+     * {@link Class#forName(String, boolean, ClassLoader)} call for each
+     * class. If you only need the names use
+     * {@link #getLoadedClassnamesFromVmClassHierarchy()}.
+     *
+     * @return the loaded classes
+     */
     public Set<Class<?>> getLoadedClassesFromVmClassHierarchy() {
-        Set<Class<?>> classes = new HashSet<>();
-        String[] loadedClassesNames = getLoadedClassnames();
-        for (String className : loadedClassesNames) {
-            try {
-                log.log(Level.FINER, "Try to get class \"{0}\"...", className);
-                Class<?> cl = Class.forName(className);
+        Set<String> classnames = getLoadedClassnamesFromVmClassHierarchy();
+        Set<Class<?>> classes = new HashSet<>(classnames.size() * 4 / 3 + 1);
+        for (String className : classnames) {
+            Class<?> cl = forName(className);
+            if (cl != null) {
                 classes.add(cl);
-            } catch (ClassNotFoundException | Error ex) {
-                log.log(Level.FINE, "Class \"{0}\" could not be loaded ({1}).", new Object[] {className, ex.getMessage()});
-                log.log(Level.FINER, "Details:", ex);
             }
         }
         return classes;
     }
 
+    /**
+     * Resolves the given classname without initializing the class. The
+     * result is cached. Classes are only weakly referenced so that they can
+     * be unloaded. The entries of unloaded classes are removed from the
+     * cache. Classes which cannot be resolved are not cached because they
+     * may be resolvable later (e.g. after a classloader was added).
+     *
+     * @param className the name of the class
+     * @return the class or null if it cannot be resolved
+     */
+    static Class<?> forName(String className) {
+        expungeClearedReferences();
+        Reference<Class<?>> ref = RESOLVED.get(className);
+        Class<?> cl = (ref == null) ? null : ref.get();
+        if (cl != null) {
+            return cl;
+        }
+        try {
+            log.log(Level.FINER, "Try to get class \"{0}\"...", className);
+            cl = Class.forName(className, false, ClassDiagnostic.class.getClassLoader());
+            RESOLVED.put(className, new ClassReference(className, cl));
+        } catch (ClassNotFoundException | LinkageError ex) {
+            log.log(Level.FINE, "Class \"{0}\" could not be loaded ({1}).", new Object[] {className, ex.getMessage()});
+            log.log(Level.FINER, "Details:", ex);
+        }
+        return cl;
+    }
+
+    static boolean isCached(String className) {
+        return RESOLVED.containsKey(className);
+    }
+
+    private static void expungeClearedReferences() {
+        for (Reference<?> ref = CLEARED.poll(); ref != null; ref = CLEARED.poll()) {
+            ClassReference cleared = (ClassReference) ref;
+            RESOLVED.remove(cleared.className, cleared);
+        }
+    }
+
+    /**
+     * Asks the VM via the 'vmClassHierarchy' command of the DiagnosticCommand
+     * MBean for the loaded classes. Only the names are returned, i.e. no
+     * class is loaded or initialized by this call. The (multi-megabyte)
+     * output is parsed in one pass without splitting it into lines.
+     * <p>
+     * NOTE: The DiagnosticCommand MBean returns the whole output as one
+     * String, there is no streaming variant of this command. So the output
+     * is held in memory once during the parse, but no copy of it (and no
+     * array of lines) is created.
+     * </p>
+     *
+     * @return the names of the loaded classes
+     */
     public static Set<String> getLoadedClassnamesFromVmClassHierarchy() {
         try {
             Object classHierarchy = ManagementFactory.getPlatformMBeanServer().invoke(
@@ -136,31 +197,51 @@ public final class ClassDiagnostic implements ClassLoading {
         }
     }
 
-    private static Set<String> parseClassnamesHierarchy(String hierarchy) {
-        Set<String> classes = new HashSet<>();
-        String[] lines = hierarchy.split("\n");
-        for(String l : lines) {
-            String className = substringBefore(l, '/');
-            if (className.startsWith("|")) {
-                className = getSubstringAfterLast(className, "|--");
-            }
+    private static Set<String> parseClassnamesHierarchy(CharSequence hierarchy) {
+        Set<String> classes = new HashSet<>(hierarchy.length() / 40);
+        parseClassnamesHierarchy(hierarchy, className -> {
             if (isNotRealClass(className)) {
-                log.log(Level.FINER, "\"{0}\" is ignored because it is not a real class name.", classes);
+                log.log(Level.FINER, "\"{0}\" is ignored because it is not a real class name.", className);
             } else {
                 classes.add(className);
             }
-        }
+        });
         return classes;
     }
 
-    private static String substringBefore(String s, char c) {
-        int i = s.indexOf(c);
-        return s.substring(0,i).trim();
-    }
-
-    private static String getSubstringAfterLast(String s, String separator) {
-        int i = s.lastIndexOf(separator);
-        return s.substring(i+separator.length()).trim();
+    /**
+     * Parses the output of the 'vmClassHierarchy' command line by line
+     * without splitting it into lines. Each line looks like
+     * <pre>
+     * |  |--java.util.HashMap/null
+     * </pre>
+     * The classname is the part between the last tree character and the
+     * first '/'. It is the only string which is created for a line. Lines
+     * without a '/' are ignored.
+     *
+     * @param hierarchy output of the 'vmClassHierarchy' command
+     * @param consumer  consumer for the found classnames
+     */
+    static void parseClassnamesHierarchy(CharSequence hierarchy, Consumer<String> consumer) {
+        int length = hierarchy.length();
+        int nameStart = 0;
+        boolean inName = true;
+        for (int i = 0; i < length; i++) {
+            char c = hierarchy.charAt(i);
+            if (c == '\n') {
+                nameStart = i + 1;
+                inName = true;
+            } else if (inName) {
+                if (c == '/') {
+                    if (i > nameStart) {
+                        consumer.accept(hierarchy.subSequence(nameStart, i).toString());
+                    }
+                    inName = false;
+                } else if (c == '|' || c == '-' || Character.isWhitespace(c)) {
+                    nameStart = i + 1;
+                }
+            }
+        }
     }
 
     private static boolean isNotRealClass(String className) {
@@ -171,4 +252,19 @@ public final class ClassDiagnostic implements ClassLoading {
                 ;
     }
 
+    /**
+     * Weak reference to a resolved class which knows its key in the cache.
+     * So it can be removed from the cache after the class was unloaded.
+     */
+    private static final class ClassReference extends WeakReference<Class<?>> {
+
+        private final String className;
+
+        private ClassReference(String className, Class<?> clazz) {
+            super(clazz, CLEARED);
+            this.className = className;
+        }
+
+    }
+
 }
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.spi;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The BinCodec encodes CSV lines into a compact binary format and decodes
+ * them back. The conversion is lossless, i.e. the decoded lines are the
+ * same as the encoded lines.
+ * <p>
+ * Each line is split at ';' into cells. A cell is stored as varint tag:
+ * </p>
+ * <ul>
+ *     <li>a non-negative number (without leading zeros) is stored as
+ *         {@code (value << 1) | 1},</li>
+ *     <li>any other cell is stored as {@code index << 1} into a dictionary
+ *         of the column. If the index is the actual size of the dictionary
+ *         the tag is followed by the new (UTF-8) string.</li>
+ * </ul>
+ * <p>
+ * So a classpath which is repeated in each line of a {@code ClazzStatistic}
+ * needs only one or two bytes, and a count only one byte in most cases.
+ * Each line starts with the number of cells, 0 marks the end of the data.
+ * Optionally the data after the header can be compressed with a
+ * {@link java.util.zip.Deflater}.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class BinCodec {
+
+    private static final int MAGIC = 0x435a4642;    // "CZFB"
+    private static final int VERSION = 1;
+    private static final int COMPRESSED = 1;
+
+    private BinCodec() {
+    }
+
+    /**
+     * Encodes the given head line and CSV lines.
+     *
+     * @param out        where the binary data is written to (will be closed)
+     * @param headLine   CSV header
+     * @param lines      CSV lines (without head line)
+     * @param compressed true if the data should be compressed
+     * @return number of encoded lines (without head line)
+     * @throws IOException in case of I/O problems
+     */
+    public static int encode(OutputStream out, String headLine, Iterator<String> lines, boolean compressed)
+            throws IOException {
+        int n = 0;
+        try (OutputStream stream = out) {
+            DataOutputStream header = new DataOutputStream(stream);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.writeByte(compressed ? COMPRESSED : 0);
+            OutputStream body = compressed ? new DeflaterOutputStream(stream) : stream;
+            try (Encoder encoder = new Encoder(new BufferedOutputStream(body, 0x10000))) {
+                encoder.write(headLine);
+                while (lines.hasNext()) {
+                    encoder.write(lines.next());
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Decodes the binary data line by line.
+     *
+     * @param in       the binary data (will be closed)
+     * @param consumer consumer of the decoded lines (including head line)
+     * @return number of decoded lines (including head line)
+     * @throws IOException in case of I/O problems or unknown format
+     */
+    public static int decode(InputStream in, Consumer<String> consumer) throws IOException {
+        int n = 0;
+        try (InputStream stream = in) {
+            DataInputStream header = new DataInputStream(stream);
+            if (header.readInt() != MAGIC) {
+                throw new IOException("no binary statistic (magic number is missing)");
+            }
+            int version = header.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("unsupported version " + version);
+            }
+            int flags = header.readUnsignedByte();
+            InputStream body = ((flags & COMPRESSED) != 0) ? new InflaterInputStream(stream) : stream;
+            try (Decoder decoder = new Decoder(body)) {
+                for (String line = decoder.read(); line != null; line = decoder.read()) {
+                    consumer.accept(line);
+                    n++;
+                }
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Checks the first bytes of the given file for the binary format.
+     *
+     * @param file the file to be checked
+     * @return true if the file contains binary data of this codec
+     * @throws IOException in case of I/O problems
+     */
+    public static boolean isBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return (file.length() >= 4) && (in.readInt() == MAGIC);
+        }
+    }
+
+    /**
+     * Converts a CSV file into the binary format.
+     *
+     * @param csvFile    source file
+     * @param binFile    target file
+     * @param compressed true if the data should be compressed
+     * @throws IOException in case of I/O problems
+     */
+    public static void fromCSV(File csvFile, File binFile, boolean compressed) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(csvFile), StandardCharsets.UTF_8))) {
+            String headLine = reader.readLine();
+            if (headLine == null) {
+                throw new EOFException("empty file " + csvFile);
+            }
+            try (OutputStream out = new FileOutputStream(binFile)) {
+                encode(out, headLine, reader.lines().iterator(), compressed);
+            }
+        }
+    }
+
+    /**
+     * Converts a binary file back into a CSV file.
+     *
+     * @param binFile source file
+     * @param csvFile target file
+     * @throws IOException in case of I/O problems
+     */
+    public static void toCSV(File binFile, File csvFile) throws IOException {
+        try (InputStream in = new FileInputStream(binFile);
+             BufferedWriter writer = new BufferedWriter(
+                     new OutputStreamWriter(new FileOutputStream(csvFile), StandardCharsets.UTF_8))) {
+            decode(in, line -> {
+                try {
+                    writer.write(line);
+                    writer.newLine();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private static boolean isNumber(String cell) {
+        int len = cell.length();
+        if ((len == 0) || (len > 18) || ((len > 1) && (cell.charAt(0) == '0'))) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            char c = cell.charAt(i);
+            if ((c < '0') || (c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Encoder implements Closeable {
+
+        private final OutputStream out;
+        private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+
+        private Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        private void write(String line) throws IOException {
+            String[] cells = line.split(";", -1);
+            writeVarLong(cells.length);
+            for (int col = 0; col < cells.length; col++) {
+                String cell = cells[col];
+                if (isNumber(cell)) {
+                    writeVarLong((Long.parseLong(cell) << 1) | 1);
+                } else {
+                    Map<String, Integer> dictionary = getDictionary(col);
+                    Integer index = dictionary.get(cell);
+                    if (index == null) {
+                        index = dictionary.size();
+                        dictionary.put(cell, index);
+                        writeVarLong((long) index << 1);
+                        byte[] bytes = cell.getBytes(StandardCharsets.UTF_8);
+                        writeVarLong(bytes.length);
+                        out.write(bytes);
+                    } else {
+                        writeVarLong((long) index << 1);
+                    }
+                }
+            }
+        }
+
+        private Map<String, Integer> getDictionary(int col) {
+            while (dictionaries.size() <= col) {
+                dictionaries.add(new HashMap<>());
+            }
+            return dictionaries.get(col);
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.write((int) value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writeVarLong(0);
+            out.close();
+        }
+
+    }
+
+    private static final class Decoder implements Closeable {
+
+        private final InputStream in;
+        private final byte[] buf = new byte[0x10000];
+        private int pos;
+        private int limit;
+        private final List<List<String>> dictionaries = new ArrayList<>();
+        private final StringBuilder buffer = new StringBuilder();
+
+        private Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        private String read() throws IOException {
+            int cells = (int) readVarLong();
+            if (cells == 0) {
+                return null;
+            }
+            buffer.setLength(0);
+            for (int col = 0; col < cells; col++) {
+                if (col > 0) {
+                    buffer.append(';');
+                }
+                long tag = readVarLong();
+                if ((tag & 1) != 0) {
+                    buffer.append(tag >>> 1);
+                } else {
+                    buffer.append(readCell(col, (int) (tag >>> 1)));
+                }
+            }
+            return buffer.toString();
+        }
+
+        private String readCell(int col, int index) throws IOException {
+            while (dictionaries.size() <= col) {
+                dictionaries.add(new ArrayList<>());
+            }
+            List<String> dictionary = dictionaries.get(col);
+            if (index < dictionary.size()) {
+                return dictionary.get(index);
+            } else if (index > dictionary.size()) {
+                throw new IOException("corrupt data: index " + index + " of column " + col + " is unknown");
+            }
+            int length = (int) readVarLong();
+            String cell;
+            if (length <= buf.length) {
+                if (limit - pos < length) {
+                    fill(length);
+                }
+                cell = new String(buf, pos, length, StandardCharsets.UTF_8);
+                pos += length;
+            } else {
+                byte[] bytes = new byte[length];
+                int off = limit - pos;
+                System.arraycopy(buf, pos, bytes, 0, off);
+                pos = limit;
+                while (off < length) {
+                    int n = in.read(bytes, off, length - off);
+                    if (n < 0) {
+                        throw new EOFException("unexpected end of data");
+                    }
+                    off += n;
+                }
+                cell = new String(bytes, StandardCharsets.UTF_8);
+            }
+            dictionary.add(cell);
+            return cell;
+        }
+
+        /**
+         * Moves the remaining bytes to the start of the buffer and reads
+         * until at least the given number of bytes are available.
+         */
+        private void fill(int needed) throws IOException {
+            int remaining = limit - pos;
+            System.arraycopy(buf, pos, buf, 0, remaining);
+            pos = 0;
+            limit = remaining;
+            while (limit < needed) {
+                int n = in.read(buf, limit, buf.length - limit);
+                if (n < 0) {
+                    throw new EOFException("unexpected end of data");
+                }
+                limit += n;
+            }
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (pos == limit) {
+                    fill(1);
+                }
+                int b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("corrupt data: varint is too long");
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+    }
+
+}
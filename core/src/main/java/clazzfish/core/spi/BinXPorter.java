@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.spi;
+
+import clazzfish.core.Config;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * The class BinXPorter stores the CSV lines in the compact binary format of
+ * the {@link BinCodec}. It accepts "bin" URIs (e.g. "bin:///tmp/dump") and
+ * "file" URIs. The suffix ".csv" of the file name is replaced by ".bin".
+ * <p>
+ * If there is no binary file but a CSV file (e.g. from a former export
+ * with the {@link FileXPorter}) the CSV file is imported. So you can switch
+ * from CSV to the binary format without losing the old statistic.
+ * </p>
+ * <p>
+ * Several writers are coordinated by the same lock file as the
+ * {@link FileXPorter} ("&lt;file&gt;.bin.lock"). But the binary format
+ * has no segments: if the lock cannot be acquired within the lock timeout
+ * the export fails with an {@link IOException}. So if many JVMs export to
+ * the same dump at the same time you should prefer a "file" URI.
+ * </p>
+ * <p>
+ * For the same reason {@link #appendCSV(URI, String, Stream)} is not
+ * supported. So a "bin" URI disables delta dumps (see
+ * {@link Config#DUMP_DELTA}): each dump is a full export of the statistic.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public class BinXPorter implements CsvXPorter {
+
+    private static final Logger log = Logger.getLogger(BinXPorter.class.getName());
+    private final URI uri;
+    private final boolean compressed;
+    private final Duration lockTimeout;
+
+    /**
+     * Creates a BinXPorter which compresses the data if it is configured
+     * in {@link Config#DEFAULT}.
+     *
+     * @param uri "bin" or "file" URI
+     */
+    public BinXPorter(URI uri) {
+        this(uri, Config.DEFAULT.isDumpCompressed());
+    }
+
+    /**
+     * Creates a BinXPorter.
+     *
+     * @param uri        "bin" or "file" URI
+     * @param compressed true if the data should be compressed
+     */
+    public BinXPorter(URI uri, boolean compressed) {
+        this(uri, compressed, Config.DEFAULT.getDumpLockTimeout());
+    }
+
+    /**
+     * Creates a BinXPorter with the given time to wait for the lock.
+     *
+     * @param uri         "bin" or "file" URI
+     * @param compressed  true if the data should be compressed
+     * @param lockTimeout maximal time to wait for the lock of the file
+     */
+    public BinXPorter(URI uri, boolean compressed, Duration lockTimeout) {
+        this.uri = uri;
+        this.compressed = compressed;
+        this.lockTimeout = lockTimeout;
+    }
+
+    @Override
+    public URI getURI() {
+        return uri;
+    }
+
+    @Override
+    public BinXPorter withURI(URI csvURI) {
+        if (csvURI.equals(getURI())) {
+            return this;
+        } else {
+            log.log(Level.FINER, "A new BinXPorter for URI {0} will be created.", csvURI);
+            return new BinXPorter(csvURI, compressed, lockTimeout);
+        }
+    }
+
+    /**
+     * Locks the binary file of the given URI with the same lock file
+     * protocol as the {@link FileXPorter}.
+     *
+     * @param uri "bin" or "file" URI
+     * @return the lock which is released with {@link Closeable#close()}
+     * @throws IOException in case of I/O problems
+     */
+    @Override
+    public Closeable lock(URI uri) throws IOException {
+        return FileXPorter.lock(toFile(uri), lockTimeout);
+    }
+
+    /**
+     * Gets the binary file for the given URI.
+     *
+     * @param uri "bin" or "file" URI
+     * @return file with suffix ".bin"
+     */
+    public static File toFile(URI uri) {
+        String path = uri.getPath();
+        if (path == null) {
+            throw new IllegalArgumentException("no path in URI " + uri);
+        }
+        if (path.endsWith(".csv")) {
+            path = path.substring(0, path.length() - 4) + ".bin";
+        }
+        return new File(path);
+    }
+
+    @Override
+    public void exportCSV(URI uri, String csvHeadLine, List<String> csvLines) throws IOException {
+        exportCSV(uri, csvHeadLine, csvLines.iterator());
+    }
+
+    @Override
+    public void exportCSV(URI uri, String csvHeadLine, Stream<String> csvLines) throws IOException {
+        exportCSV(uri, csvHeadLine, csvLines.iterator());
+    }
+
+    private void exportCSV(URI uri, String csvHeadLine, Iterator<String> csvLines) throws IOException {
+        File file = toFile(uri);
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            log.log(Level.WARNING, "Cannot create dir \"{0}\".", dir);
+        }
+        int n;
+        try (Closeable lock = lock(uri)) {
+            if (!FileXPorter.isLockedByCurrentThread(file)) {
+                throw new IOException(file + " is locked by another writer");
+            }
+            File tmpFile = new File(file + "-" + System.currentTimeMillis() + ".tmp");
+            try (OutputStream out = new FileOutputStream(tmpFile)) {
+                n = BinCodec.encode(out, csvHeadLine, csvLines, compressed);
+            } catch (IOException | UncheckedIOException ex) {
+                Files.deleteIfExists(tmpFile.toPath());
+                throw ex;
+            }
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        log.log(Level.FINE, "Statistic exported with {0} lines to \"{1}\".", new Object[] { n, file });
+    }
+
+    @Override
+    public List<String> importCSV(URI uri) throws IOException {
+        List<String> csvLines = new ArrayList<>();
+        importCSV(uri, csvLines::add);
+        return csvLines;
+    }
+
+    /**
+     * Imports the binary file line by line. If the binary file does not
+     * exist the CSV file with the same name is imported.
+     *
+     * @param uri      URI where the statistic should be imported from
+     * @param consumer consumer of the CSV lines (including head line)
+     * @throws IOException in case of I/O problems
+     */
+    @Override
+    public void importCSV(URI uri, Consumer<String> consumer) throws IOException {
+        File file = toFile(uri);
+        if (!file.exists() && uri.getPath().endsWith(".csv")) {
+            file = new File(uri.getPath());
+            log.log(Level.FINE, "No binary statistic for {0} found, trying {1}...", new Object[] { uri, file });
+        }
+        int n;
+        if (BinCodec.isBinary(file)) {
+            try (InputStream in = new FileInputStream(file)) {
+                n = BinCodec.decode(in, consumer);
+            }
+        } else {
+            n = 0;
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    consumer.accept(line);
+                    n++;
+                }
+            }
+        }
+        log.log(Level.FINE, "{0} lines imported from file {1}.", new Object[] { n, file });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BinXPorter)) return false;
+        BinXPorter xPorter = (BinXPorter) o;
+        return Objects.equals(uri, xPorter.uri) && compressed == xPorter.compressed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(uri, compressed);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "-" + uri;
+    }
+
+}
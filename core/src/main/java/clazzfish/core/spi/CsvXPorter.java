@@ -17,12 +17,16 @@
  */
 package clazzfish.core.spi;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The interface CsvXPorter contains the needed methods to import and export
@@ -51,6 +55,25 @@ public interface CsvXPorter {
      */
     CsvXPorter withURI(URI csvURI);
 
+    /**
+     * Locks the given URI for other writers (e.g. other JVMs which share the
+     * same dump directory). Use it with try-with-resources around an import
+     * and the following export so that no concurrent export gets lost in
+     * between. The lock is reentrant, i.e. the import and export methods can
+     * lock the URI again.
+     * <p>
+     * The default implementation does not lock anything.
+     * </p>
+     *
+     * @param uri URI to be locked
+     * @return the lock which is released with {@link Closeable#close()}
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    default Closeable lock(URI uri) throws IOException {
+        return () -> {};
+    }
+
     /**
      * Interface for exporting CSV.
      *
@@ -61,6 +84,46 @@ public interface CsvXPorter {
      */
     void exportCSV(URI uri, String csvHeadLine, List<String> csvLines) throws IOException;
 
+    /**
+     * Exports the CSV lines as stream. If the lines are created lazily the
+     * memory needed for the export does not depend on the number of lines.
+     * <p>
+     * The default implementation collects the stream into a list and calls
+     * {@link #exportCSV(URI, String, List)} so existing implementations need
+     * not be changed. Implementations which can write line by line should
+     * override it.
+     * </p>
+     *
+     * @param uri         URI where the CSV should be exported to
+     * @param csvHeadLine CSV header
+     * @param csvLines    stream of CSV lines (without head line)
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    default void exportCSV(URI uri, String csvHeadLine, Stream<String> csvLines) throws IOException {
+        exportCSV(uri, csvHeadLine, csvLines.collect(Collectors.toList()));
+    }
+
+    /**
+     * Appends the CSV lines as separate segment to the given URI. The
+     * segments are merged by the next {@link #importCSV(URI, Consumer)} of
+     * the URI. So an export needs not to rewrite the whole CSV.
+     * <p>
+     * The default implementation does not support segments.
+     * </p>
+     *
+     * @param uri         URI where the CSV should be appended to
+     * @param csvHeadLine CSV header
+     * @param csvLines    stream of CSV lines (without head line)
+     * @return number of segments which are not yet merged (including this one)
+     * @throws IOException in case of I/O problems
+     * @throws UnsupportedOperationException if segments are not supported
+     * @since 3.1
+     */
+    default int appendCSV(URI uri, String csvHeadLine, Stream<String> csvLines) throws IOException {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support segments");
+    }
+
     /**
      * Interface for exporting CSV.
      *
@@ -103,6 +166,25 @@ public interface CsvXPorter {
         return Collections.EMPTY_LIST;
     }
 
+    /**
+     * Imports the CSV line by line. Each line (including the head line) is
+     * passed to the given consumer, so the import needs not to hold all lines
+     * in memory.
+     * <p>
+     * The default implementation calls {@link #importCSV(URI)} and passes the
+     * lines of the returned list to the consumer. Implementations which can
+     * read line by line should override it.
+     * </p>
+     *
+     * @param uri      URI where the CSV should be imported from
+     * @param consumer consumer of the CSV lines (including head line)
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    default void importCSV(URI uri, Consumer<String> consumer) throws IOException {
+        importCSV(uri).forEach(consumer);
+    }
+
     /**
      * Interface for importing a CSV. This method should be called in
      * {@link #exportCSV(URI, String, List)} to aggregate the count of the
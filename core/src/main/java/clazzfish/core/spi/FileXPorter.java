@@ -17,19 +17,59 @@
  */
 package clazzfish.core.spi;
 
+import clazzfish.core.Config;
+
 import java.io.*;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * The class FileXPorter accepts a file URI to import and export CSV data.
+ * <p>
+ * Since 3.1 several writers (threads or JVMs which share the same dump
+ * directory) are coordinated by a lock file ("&lt;file&gt;.lock"):
+ * </p>
+ * <ul>
+ *     <li>The export (and the compaction) is done with the lock only. The
+ *         lock file is deleted again when the lock is released.</li>
+ *     <li>The import needs no lock and does not create any file or
+ *         directory. It reads the file and its segments.</li>
+ *     <li>If the lock cannot be acquired in the configured time
+ *         ({@link Config#getDumpLockTimeout()}) the CSV lines are written
+ *         into a unique segment file "&lt;file&gt;-&lt;pid&gt;-&lt;n&gt;-&lt;millis&gt;"
+ *         which is merged by the next export with the lock. The merged
+ *         segments are deleted after the new file is in place.</li>
+ *     <li>Files are written with the suffix ".tmp" and renamed when they
+ *         are complete. So no reader sees an incomplete file.</li>
+ * </ul>
+ * So the time needed for the shutdown of a JVM is bounded even if many JVMs
+ * on one host exit at the same time.
  *
  * @author oboehm
  * @since 2.5 (18.02.25)
@@ -37,14 +77,29 @@ import java.util.regex.Pattern;
 public class FileXPorter implements CsvXPorter {
 
     private static final Logger log = Logger.getLogger(FileXPorter.class.getName());
+    private static final Map<File, DumpLock> LOCKS = new ConcurrentHashMap<>();
+    private static final AtomicInteger SEGMENT_COUNTER = new AtomicInteger();
     private final URI uri;
+    private final Duration lockTimeout;
 
     public FileXPorter(File file) {
         this(file.toURI());
     }
 
     public FileXPorter(URI uri) {
+        this(uri, Config.DEFAULT.getDumpLockTimeout());
+    }
+
+    /**
+     * Creates a FileXPorter with the given time to wait for the lock.
+     *
+     * @param uri         file URI
+     * @param lockTimeout maximal time to wait for the lock of the file
+     * @since 3.1
+     */
+    public FileXPorter(URI uri, Duration lockTimeout) {
         this.uri = uri;
+        this.lockTimeout = lockTimeout;
     }
 
     @Override
@@ -58,29 +113,145 @@ public class FileXPorter implements CsvXPorter {
             return this;
         } else {
             log.log(Level.FINER, "A new FileXPorter for URI {0} will be created.", csvURI);
-            return new FileXPorter(csvURI);
+            return new FileXPorter(csvURI, lockTimeout);
         }
     }
 
+    /**
+     * Locks the given file with the lock file "&lt;file&gt;.lock". If the
+     * lock cannot be acquired within the lock timeout the returned lock is
+     * not held and the following exports are written as segment.
+     *
+     * @param uri file URI to be locked
+     * @return the lock which is released with {@link Closeable#close()}
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Override
+    public Closeable lock(URI uri) throws IOException {
+        return getDumpLock(new File(uri)).acquire(lockTimeout);
+    }
+
+    /**
+     * Locks the given file in the same way as {@link #lock(URI)}. This is
+     * used by other xPorters of this package (e.g. {@link BinXPorter}).
+     */
+    static Closeable lock(File file, Duration timeout) throws IOException {
+        return getDumpLock(file).acquire(timeout);
+    }
+
+    static boolean isLockedByCurrentThread(File file) {
+        DumpLock dumpLock = LOCKS.get(file.getAbsoluteFile());
+        return (dumpLock != null) && dumpLock.isHeldByCurrentThread();
+    }
+
+    private static DumpLock getDumpLock(File file) {
+        return LOCKS.computeIfAbsent(file.getAbsoluteFile(), DumpLock::new);
+    }
+
     @Override
     public void exportCSV(URI uri, String csvHeadLine, List<String> csvLines) throws IOException {
-        writeCSV(new File(uri), csvHeadLine, csvLines);
-        log.log(Level.FINE, "Statistic exported with {0} lines to \"{0}\".", new Object[] { csvLines.size(), uri});
+        int n = writeCSV(new File(uri), csvHeadLine, csvLines.iterator());
+        log.log(Level.FINE, "Statistic exported with {0} lines to \"{1}\".", new Object[] { n, uri});
     }
 
-    private void writeCSV(File file, String csvHeadLine, List<String> csvLines) throws IOException {
-        createDir(file.getParentFile());
-        File tmpFile = new File(file + "-" + System.currentTimeMillis());
+    /**
+     * Exports the CSV lines as stream. The lines are written directly
+     * through a buffered writer into a temporary file which is renamed at
+     * the end.
+     *
+     * @param uri         URI where the CSV should be exported to
+     * @param csvHeadLine CSV header
+     * @param csvLines    stream of CSV lines (without head line)
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Override
+    public void exportCSV(URI uri, String csvHeadLine, Stream<String> csvLines) throws IOException {
+        int n = writeCSV(new File(uri), csvHeadLine, csvLines.iterator());
+        log.log(Level.FINE, "Statistic exported with {0} lines to \"{1}\".", new Object[] { n, uri});
+    }
+
+    private int writeCSV(File file, String csvHeadLine, Iterator<String> csvLines) throws IOException {
+        createDir(file.getAbsoluteFile().getParentFile());
+        try (Closeable lock = lock(file.toURI())) {
+            DumpLock dumpLock = getDumpLock(file);
+            if (dumpLock.isHeldByCurrentThread()) {
+                int n = writeCSVFile(file, csvHeadLine, csvLines);
+                dumpLock.deleteImportedSegments();
+                return n;
+            } else {
+                File segment = newSegment(file);
+                log.log(Level.INFO, "{0} is locked, statistic is written to \"{1}\".", new Object[] { file, segment });
+                return writeCSVFile(segment, csvHeadLine, csvLines);
+            }
+        }
+    }
+
+    /**
+     * Appends the CSV lines as new segment without waiting for the lock.
+     *
+     * @param uri         URI where the CSV should be appended to
+     * @param csvHeadLine CSV header
+     * @param csvLines    stream of CSV lines (without head line)
+     * @return number of segments which are not yet merged (including this one)
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Override
+    public int appendCSV(URI uri, String csvHeadLine, Stream<String> csvLines) throws IOException {
+        File file = new File(uri);
+        createDir(file.getAbsoluteFile().getParentFile());
+        File segment = newSegment(file);
+        int n = writeCSVFile(segment, csvHeadLine, csvLines.iterator());
+        log.log(Level.FINE, "{0} lines appended as \"{1}\".", new Object[] { n, segment });
+        return listSegments(file).length;
+    }
+
+    private static File newSegment(File file) {
+        return new File(file + "-" + ProcessHandle.current().pid() + "-"
+                + SEGMENT_COUNTER.incrementAndGet() + "-" + System.currentTimeMillis());
+    }
+
+    private static File[] listSegments(File file) {
+        String filename = file.getName();
+        File dir = file.getAbsoluteFile().getParentFile();
+        FileFilter filter = new FileFilter() {
+            final Pattern pattern = Pattern.compile(Pattern.quote(filename) + "-.*[0-9]{13}$");
+            @Override
+            public boolean accept(File pathname) {
+                return pattern.matcher(pathname.getName()).matches();
+            }
+        };
+        File[] segments = dir.listFiles(filter);
+        return (segments == null) ? new File[0] : segments;
+    }
+
+    private static int writeCSVFile(File file, String csvHeadLine, Iterator<String> csvLines) throws IOException {
+        File tmpFile = new File(file + "-" + System.currentTimeMillis() + ".tmp");
         log.log(Level.FINER, "Statistic is temporary stored in \"{0}\".", tmpFile);
-        try (PrintWriter writer = new PrintWriter(tmpFile)) {
-            writer.println(csvHeadLine);
-            for (String line : csvLines) {
-                writer.println(line);
+        int n = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(tmpFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(csvHeadLine);
+            writer.newLine();
+            while (csvLines.hasNext()) {
+                writer.write(csvLines.next());
+                writer.newLine();
+                n++;
             }
-            writer.flush();
+        } catch (IOException | UncheckedIOException ex) {
+            Files.deleteIfExists(tmpFile.toPath());
+            throw ex;
+        }
+        try {
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            log.log(Level.FINE, "Atomic move is not supported ({0}).", ex.getMessage());
+            Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
-        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
         log.log(Level.FINER, "New {0} is renamed to {1}.", new Object[] { tmpFile, file });
+        return n;
     }
 
     private static void createDir(File dir) {
@@ -95,41 +266,88 @@ public class FileXPorter implements CsvXPorter {
 
     @Override
     public List<String> importCSV(URI uri) throws IOException {
+        List<String> csvLines = new ArrayList<>();
+        importCSV(uri, csvLines::add);
+        return csvLines;
+    }
+
+    /**
+     * Imports the CSV file line by line. Segments of former exports (see
+     * {@link #exportCSV(URI, String, List)}) are imported too (without their
+     * head line). The import itself does not lock the file and does not
+     * delete anything. Only if it is called inside a {@link #lock(URI)}
+     * the imported segments are deleted - after the following export has
+     * written the merged file.
+     * <p>
+     * If the import is called inside a {@link #lock(URI)} which could not
+     * be acquired nothing is imported. Otherwise the following export (as
+     * segment) would contain the imported lines a second time.
+     * </p>
+     *
+     * @param uri      URI where the CSV should be imported from
+     * @param consumer consumer of the CSV lines (including head line)
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Override
+    public void importCSV(URI uri, Consumer<String> consumer) throws IOException {
         File file = new File(uri);
-        List<String> csvLines = importCSV(file);
-        return importTmpFiles(file, csvLines);
+        if (getDumpLock(file).isInSegmentMode()) {
+            log.log(Level.FINE, "{0} is locked and will be exported as segment, import is skipped.", file);
+            return;
+        }
+        boolean exists = file.exists();
+        if (exists) {
+            importCSV(file, consumer);
+        }
+        File[] segments = importTmpFiles(file, consumer, !exists);
+        if ((segments.length == 0) && !exists) {
+            throw new FileNotFoundException(file + " does not exist");
+        }
+        DumpLock dumpLock = LOCKS.get(file.getAbsoluteFile());
+        if ((dumpLock != null) && dumpLock.isHeldByCurrentThread()) {
+            dumpLock.addImportedSegments(segments);
+        }
     }
 
-    private static List<String> importCSV(File file) throws IOException {
-        List<String> csvLines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            while (reader.ready()) {
-                String line = reader.readLine();
-                csvLines.add(line);
+    /**
+     * Reads the file line by line until EOF. Don't use
+     * {@link BufferedReader#ready()} as end condition: it may return false
+     * before the end of file is reached (e.g. on NFS) and the rest of the
+     * statistic would be lost.
+     */
+    private static int importCSV(File file, Consumer<String> consumer) throws IOException {
+        int n = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                consumer.accept(line);
+                n++;
             }
-            log.log(Level.FINE, "{0} lines imported from file {1}.", new Object[] { csvLines.size(), file });
+            log.log(Level.FINE, "{0} lines imported from file {1}.", new Object[] { n, file });
         }
-        return csvLines;
+        return n;
     }
 
-    private static List<String> importTmpFiles(File file, List<String> csvLines) throws IOException {
-        String filename = file.getName();
-        File dir = file.getParentFile();
-        FileFilter filter = new FileFilter() {
-            final Pattern pattern = Pattern.compile(filename + "-.*[0-9]{13}$");
-            @Override
-            public boolean accept(File pathname) {
-                return pattern.matcher(pathname.getName()).matches();
-            }
-        };
-        for (File f : dir.listFiles(filter)) {
-            List<String> lines = importCSV(f);
-            csvLines.addAll(lines.subList(1, lines.size()));
-            if (f.delete()) {
-                log.log(Level.INFO, "Temporary file \"{0}\" is deleted after import.", f);
-            }
+    /**
+     * Imports the segments of the given file. The head line of the segments
+     * is skipped, except for the first segment if the given file does not
+     * exist. The segments are not deleted here.
+     */
+    private static File[] importTmpFiles(File file, Consumer<String> consumer, boolean withHeadLine)
+            throws IOException {
+        File[] segments = listSegments(file);
+        boolean[] headLine = { !withHeadLine };
+        for (File f : segments) {
+            importCSV(f, line -> {
+                if (headLine[0]) {
+                    headLine[0] = false;
+                } else {
+                    consumer.accept(line);
+                }
+            });
+            headLine[0] = true;
         }
-        return csvLines;
+        return segments;
     }
 
     @Override
@@ -149,4 +367,153 @@ public class FileXPorter implements CsvXPorter {
         return getClass().getSimpleName() + "-" + uri;
     }
 
+
+
+    /**
+     * The DumpLock combines a (reentrant) lock for the threads of this JVM
+     * with a {@link FileLock} for other JVMs. A thread which could not get
+     * the lock does not wait again for nested calls but falls back directly
+     * to segment mode.
+     * <p>
+     * The lock file is deleted before the lock is released. Because another
+     * JVM may have opened the old lock file in the meantime, the owner
+     * writes a token into the locked file and checks that the lock file
+     * still contains this token. Otherwise it locked a deleted file and
+     * tries it again.
+     * </p>
+     */
+    private static final class DumpLock {
+
+        private final File lockFile;
+        private final ReentrantLock jvmLock = new ReentrantLock();
+        private final ThreadLocal<int[]> failed = ThreadLocal.withInitial(() -> new int[1]);
+        private final Set<File> importedSegments = new LinkedHashSet<>();
+        private FileChannel channel;
+        private FileLock fileLock;
+
+        private DumpLock(File file) {
+            this.lockFile = new File(file.getPath() + ".lock");
+        }
+
+        private boolean isHeldByCurrentThread() {
+            return jvmLock.isHeldByCurrentThread();
+        }
+
+        private boolean isInSegmentMode() {
+            return failed.get()[0] > 0;
+        }
+
+        private void addImportedSegments(File[] segments) {
+            importedSegments.addAll(Arrays.asList(segments));
+        }
+
+        private void deleteImportedSegments() {
+            for (File f : importedSegments) {
+                if (f.delete()) {
+                    log.log(Level.FINE, "Segment \"{0}\" is deleted after merge.", f);
+                } else {
+                    log.log(Level.WARNING, "Cannot delete merged segment \"{0}\".", f);
+                }
+            }
+            importedSegments.clear();
+        }
+
+        private Closeable acquire(Duration timeout) throws IOException {
+            if (jvmLock.isHeldByCurrentThread()) {
+                jvmLock.lock();
+                return jvmLock::unlock;
+            }
+            int[] failedHolds = failed.get();
+            if ((failedHolds[0] == 0) && tryLock(timeout)) {
+                return this::release;
+            }
+            failedHolds[0]++;
+            return () -> failedHolds[0]--;
+        }
+
+        private boolean tryLock(Duration timeout) throws IOException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            try {
+                if (!jvmLock.tryLock(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    return false;
+                }
+                createDir(lockFile.getAbsoluteFile().getParentFile());
+                while (true) {
+                    channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE);
+                    while ((fileLock = channel.tryLock()) == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            log.log(Level.FINE, "{0} is locked by another process.", lockFile);
+                            release();
+                            return false;
+                        }
+                        Thread.sleep(Math.min(20, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+                    }
+                    if (isLockFileOwned()) {
+                        return true;
+                    }
+                    log.log(Level.FINE, "{0} was deleted by the former owner, trying it again.", lockFile);
+                    closeChannel();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                log.log(Level.FINE, "Waiting for {0} was interrupted.", lockFile);
+                if (jvmLock.isHeldByCurrentThread()) {
+                    release();
+                }
+                return false;
+            } catch (IOException | RuntimeException ex) {
+                if (jvmLock.isHeldByCurrentThread()) {
+                    release();
+                }
+                throw ex;
+            }
+        }
+
+        private boolean isLockFileOwned() throws IOException {
+            byte[] token = (ProcessHandle.current().pid() + "@" + System.nanoTime())
+                    .getBytes(StandardCharsets.US_ASCII);
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(token), 0);
+            try {
+                return Arrays.equals(token, Files.readAllBytes(lockFile.toPath()));
+            } catch (NoSuchFileException ex) {
+                return false;
+            }
+        }
+
+        private void release() throws IOException {
+            try {
+                if (fileLock != null) {
+                    Files.deleteIfExists(lockFile.toPath());
+                }
+            } catch (IOException ex) {
+                log.log(Level.FINE, "Cannot delete {0} ({1}).", new Object[] { lockFile, ex.getMessage() });
+            } finally {
+                importedSegments.clear();
+                try {
+                    closeChannel();
+                } finally {
+                    jvmLock.unlock();
+                }
+            }
+        }
+
+        private void closeChannel() throws IOException {
+            try {
+                if (fileLock != null) {
+                    fileLock.release();
+                }
+                if (channel != null) {
+                    channel.close();
+                }
+            } finally {
+                fileLock = null;
+                channel = null;
+            }
+        }
+
+    }
+
 }
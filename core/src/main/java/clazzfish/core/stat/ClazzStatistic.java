@@ -17,11 +17,15 @@
  */
 package clazzfish.core.stat;
 
+import clazzfish.core.ClassLoading;
+import clazzfish.core.Config;
 import clazzfish.core.Digger;
 import clazzfish.core.jmx.MBeanFinder;
 import clazzfish.core.spi.CsvXPorter;
+import clazzfish.core.util.ClazzFishExecutor;
 import clazzfish.core.util.ShutdownHook;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -30,8 +34,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The ClazzStatistic collects classes and resources to find classes which are
@@ -62,52 +69,120 @@ import java.util.logging.Logger;
 public class ClazzStatistic extends ShutdownHook implements ClazzStatisticMBean {
 
     private static final Logger log = Logger.getLogger(ClazzStatistic.class.getName());
-    private static final Executor EXECUTOR = Executors.newCachedThreadPool();
     private static final Map<CsvXPorter, ClazzStatistic> INSTANCES = new ConcurrentHashMap<>();
-    private final Digger classpathDigger = new Digger();
-    private final FutureTask<Set<ClazzRecord>> allClasses;
+    private final Digger classpathDigger;
     private final URI csvURI;
     private final CsvXPorter xPorter;
+    private volatile ClazzTable clazzTable;
+    private final Set<String> appendedClassnames = ConcurrentHashMap.newKeySet();
+    private final int compactionThreshold = Config.DEFAULT.getDumpCompactionThreshold();
+    private volatile boolean deltaMode = Config.DEFAULT.isDumpDelta();
 
     public static ClazzStatistic of(CsvXPorter xPorter) {
+        return of(xPorter, Digger::new);
+    }
+
+    /**
+     * Gets the statistic for the given {@link CsvXPorter} which uses the
+     * given {@link ClassLoading} to get the loaded classes (e.g. the
+     * ClassLoadRecorder of the agent). If there is already a statistic for
+     * the given xPorter this statistic is returned.
+     *
+     * @param xPorter      for the import and export of the statistic
+     * @param classLoading provides the loaded classes
+     * @return the statistic
+     * @since 3.1
+     */
+    public static ClazzStatistic of(CsvXPorter xPorter, ClassLoading classLoading) {
+        return of(xPorter, () -> new Digger(classLoading));
+    }
+
+    /**
+     * Gets the statistic for the given {@link CsvXPorter} which uses the
+     * given {@link Digger}. This allows you to share a digger (and its scan
+     * of the classpath) with other parts of the application (e.g. the
+     * ClasspathAgent). If the cached statistic for the given xPorter uses
+     * another digger it is replaced by a new statistic.
+     *
+     * @param xPorter for the import and export of the statistic
+     * @param digger  digger for the classes of the classpath
+     * @return the statistic
+     * @since 3.1
+     */
+    public static ClazzStatistic of(CsvXPorter xPorter, Digger digger) {
+        CsvXPorter xp = withCsvURI(xPorter);
+        return INSTANCES.compute(xp, (key, cached) -> ((cached != null) && (cached.classpathDigger == digger))
+                ? cached : new ClazzStatistic(xp.getURI(), xp, digger));
+    }
+
+    private static ClazzStatistic of(CsvXPorter xPorter, Supplier<Digger> digger) {
+        CsvXPorter xp = withCsvURI(xPorter);
+        return INSTANCES.computeIfAbsent(xp, key -> new ClazzStatistic(xp.getURI(), xp, digger.get()));
+    }
+
+    private static CsvXPorter withCsvURI(CsvXPorter xPorter) {
         URI csvURI = xPorter.getURI();
-        if (!csvURI.toString().endsWith(".csv")) {
-            csvURI = java.net.URI.create(csvURI + "/ClazzStatistic.csv");
-            xPorter = xPorter.withURI(csvURI);
+        if (csvURI.toString().endsWith(".csv")) {
+            return xPorter;
         }
-        ClazzStatistic cached = INSTANCES.get(xPorter);
-        if (cached == null) {
-            cached = new ClazzStatistic(csvURI, xPorter);
-            INSTANCES.put(xPorter, cached);
-        }
-        return cached;
+        return xPorter.withURI(java.net.URI.create(csvURI + "/ClazzStatistic.csv"));
     }
 
-    private ClazzStatistic(URI csvURI, CsvXPorter xPorter) {
+    private ClazzStatistic(URI csvURI, CsvXPorter xPorter, Digger digger) {
         this.xPorter = xPorter;
-        this.allClasses = collectFutureClasses(classpathDigger);
+        this.classpathDigger = digger;
         this.csvURI = csvURI;
         log.log(Level.FINE, "Statistics will be imported from / exported to \"{0}\".", csvURI);
     }
 
-    private static FutureTask<Set<ClazzRecord>> collectFutureClasses(Digger digger) {
-        FutureTask<Set<ClazzRecord>> classes = new FutureTask<>(digger::getClassRecords);
-        EXECUTOR.execute(classes);
-        return classes;
+    /**
+     * The classpath is scanned on demand, i.e. when the statistic is needed
+     * the first time. If you know that the statistic will be needed (e.g. at
+     * shutdown) you can start the scan in the background with this method.
+     *
+     * @since 3.1
+     */
+    public void prewarm() {
+        classpathDigger.prewarm();
     }
 
+    /**
+     * Registers the statistic as MBean. Since 3.1 the shared
+     * {@link ClazzFishExecutor} is registered, too.
+     */
     public void registerMeAsMBean() {
         MBeanFinder.registerMBean(this);
+        ClazzFishExecutor.DEFAULT.registerMeAsMBean();
     }
 
+    /**
+     * Gets all classes of the classpath (and of the imported statistics).
+     * Since 3.1 the classes are stored in a {@link ClazzTable}. To keep the
+     * former behaviour a sorted and modifiable copy is returned. Changes of
+     * the returned set do not change the statistic.
+     *
+     * @return sorted copy of all classes
+     */
     public Set<ClazzRecord> getAllClasses() {
-        try {
-            return allClasses.get();
-        } catch (ExecutionException | InterruptedException ex) {
-            log.log(Level.INFO, "Cannot get all classes ({0}).", ex.getMessage());
-            log.log(Level.FINE, "Details:", ex);
-            return classpathDigger.getClassRecords();
+        return new TreeSet<>(getClazzTable());
+    }
+
+    /**
+     * Gets the table of this statistic. It is a copy of the table of the
+     * digger so that an import does not change the table of a shared
+     * digger (see {@link #of(CsvXPorter, Digger)}).
+     */
+    private ClazzTable getClazzTable() {
+        ClazzTable table = clazzTable;
+        if (table == null) {
+            synchronized (this) {
+                if (clazzTable == null) {
+                    clazzTable = classpathDigger.getClazzTable().copy();
+                }
+                table = clazzTable;
+            }
         }
+        return table;
     }
 
     public CsvXPorter getXPorter() {
@@ -115,24 +190,27 @@ public class ClazzStatistic extends ShutdownHook implements ClazzStatisticMBean
     }
 
     public SortedSet<ClazzRecord> getStatistics() {
-        SortedSet<ClazzRecord> statistics = new TreeSet<>();
-        Set<String> loaded = Set.of(classpathDigger.getLoadedClassnames());
-        for (ClazzRecord record : getAllClasses()) {
-            if (loaded.contains(record.classname())) {
-                statistics.add(new ClazzRecord(record.classpath(), record.classname(), record.count()+1));
-            } else {
-                statistics.add(record);
-            }
-        }
-        return statistics;
+        return streamStatistics().collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    /**
+     * Provides the records of the statistic as sorted stream. The records
+     * are created lazily so that the stream can be exported without a copy
+     * of all records.
+     *
+     * @return stream of records (sorted by classname)
+     */
+    private Stream<ClazzRecord> streamStatistics() {
+        return streamStatistics(getClazzTable(), Set.of(classpathDigger.getLoadedClassnames()));
+    }
+
+    private static Stream<ClazzRecord> streamStatistics(ClazzTable table, Set<String> loaded) {
+        return table.stream()
+                .map(r -> loaded.contains(r.classname()) ? r.withCount(r.count() + 1) : r);
     }
 
     public Set<URI> getClasspathes() {
-        Set<URI> classpathes = new TreeSet<>();
-        for (ClazzRecord record : getAllClasses()) {
-            classpathes.add(record.classpath());
-        }
-        return classpathes;
+        return getClazzTable().getClasspathes();
     }
 
     /**
@@ -140,10 +218,10 @@ public class ClazzStatistic extends ShutdownHook implements ClazzStatisticMBean
      */
     @Override
     public void logMe() {
-        importCSV();
+        ClazzTable table = importTable();
         try (StringWriter sw = new StringWriter();
              PrintWriter writer = new PrintWriter(sw)) {
-            writeCSV(writer);
+            writeCSV(writer, table);
             sw.flush();
             log.log(Level.INFO, "=== ClazzStatistic ===\n{0}", sw);
         } catch (IOException ex) {
@@ -171,54 +249,185 @@ public class ClazzStatistic extends ShutdownHook implements ClazzStatisticMBean
         }
     }
 
+    /**
+     * Exports the statistic to the given file. Since 3.1 this is done like
+     * {@link #exportCSV(URI)}, i.e. the former statistic of the given file
+     * is imported and merged with the lock of the file.
+     *
+     * @param csvFile where the statistic should be exported to
+     * @return the URI of the given file
+     * @throws IOException in case of I/O problems
+     */
     public URI exportCSV(File csvFile) throws IOException {
         log.log(Level.FINE, "Exporting statistics to \"{0}\"...", csvFile);
-        if (csvFile.exists()) {
-            importCSV();
-        }
-        exportDirect(csvFile);
+        URI uri = exportCSV(csvFile.toURI());
         log.log(Level.INFO, "Statistics exported to \"{0}\".", csvFile);
-        return csvFile.toURI();
+        return uri;
     }
 
+    /**
+     * Exports the statistic to the given URI. The former statistic is
+     * imported before so that the counts are summed up. Import and export
+     * are done with the lock of the URI (see {@link CsvXPorter#lock(URI)})
+     * so that no export of another JVM gets lost in between.
+     * <p>
+     * The former statistic is merged into a temporary copy of the table.
+     * So repeated exports (e.g. periodic dumps) do not count the former
+     * statistic twice. In delta mode a loaded class is counted only by the
+     * first export, also if the {@link CsvXPorter} cannot append segments.
+     * </p>
+     *
+     * @param uri where the statistic should be exported to
+     * @return the given URI
+     * @throws IOException in case of I/O problems
+     */
     public URI exportCSV(URI uri) throws IOException {
-        importCSV(uri);
-        log.log(Level.INFO, "Exporting statistics to \"{0}\"...", uri);
-        List<String> csvLines = getCsvLines();
-        xPorter.exportCSV(uri, ClazzRecord.toCsvHeadline(), csvLines);
+        if (deltaMode && exists(uri)) {
+            try {
+                return exportDelta(uri);
+            } catch (UnsupportedOperationException ex) {
+                log.log(Level.FINE, "Delta export is not possible ({0}).", ex.getMessage());
+            }
+        }
+        try (Closeable lock = xPorter.lock(uri)) {
+            ClazzTable table = getClazzTable().copy();
+            importCSV(table, uri);
+            log.log(Level.INFO, "Exporting statistics to \"{0}\"...", uri);
+            Set<String> loaded = new HashSet<>(Arrays.asList(classpathDigger.getLoadedClassnames()));
+            if (deltaMode) {
+                loaded.removeAll(appendedClassnames);
+            }
+            xPorter.exportCSV(uri, ClazzRecord.toCsvHeadline(),
+                    streamStatistics(table, loaded).map(ClazzRecord::toCSV));
+            if (deltaMode) {
+                appendedClassnames.addAll(loaded);
+            }
+        }
         return uri;
     }
 
-    private void exportDirect(File file) throws IOException {
-        List<String> csvLines = getCsvLines();
-        xPorter.exportCSV(file.toURI(), ClazzRecord.toCsvHeadline(), csvLines);
+    /**
+     * Appends the classes which are loaded in this run (and not yet
+     * appended) with a count of 1 as segment to the given URI. So the time
+     * needed for the export depends on the number of loaded classes and not
+     * on the size of the whole statistic. If the number of segments reaches
+     * the compaction threshold (see {@link Config#DUMP_COMPACTION_THRESHOLD})
+     * the segments are merged.
+     *
+     * @param uri where the statistic is stored
+     * @return the given URI
+     * @throws IOException in case of I/O problems
+     */
+    private URI exportDelta(URI uri) throws IOException {
+        ClazzTable clazzTable = getClazzTable();
+        List<String> classnames = new ArrayList<>();
+        List<String> csvLines = new ArrayList<>();
+        for (String name : classpathDigger.getLoadedClassnames()) {
+            ClazzRecord r = clazzTable.get(name);
+            if ((r != null) && !appendedClassnames.contains(name)) {
+                classnames.add(name);
+                csvLines.add(new ClazzRecord(r.classpath(), name, 1).toCSV());
+            }
+        }
+        if (csvLines.isEmpty()) {
+            log.log(Level.FINE, "No new loaded classes to append to \"{0}\".", uri);
+            return uri;
+        }
+        int segments = xPorter.appendCSV(uri, ClazzRecord.toCsvHeadline(), csvLines.stream());
+        appendedClassnames.addAll(classnames);
+        log.log(Level.INFO, "{0} loaded classes appended to \"{1}\".", new Object[] { csvLines.size(), uri });
+        if (segments >= compactionThreshold) {
+            compact(uri);
+        }
+        return uri;
     }
 
-    private List<String> getCsvLines() {
-        SortedSet<ClazzRecord> statistics = getStatistics();
-        List<String> csvLines = new ArrayList<>();
-        for (ClazzRecord rec : statistics) {
-            csvLines.add(rec.toCSV());
+    /**
+     * Merges the delta segments into the statistic. The counts of the
+     * classes are summed up. Classes of the actual classpath which are
+     * missing in the statistic are added with a count of 0.
+     *
+     * @return the URI of the compacted statistic
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Override
+    public URI compact() throws IOException {
+        return compact(csvURI);
+    }
+
+    private URI compact(URI uri) throws IOException {
+        try (Closeable lock = xPorter.lock(uri)) {
+            SortedMap<String, ClazzRecord> records = new TreeMap<>();
+            for (ClazzRecord r : getClazzTable()) {
+                records.put(r.classname(), r.withCount(0));
+            }
+            int[] lineNumber = { 0 };
+            xPorter.importCSV(uri, line -> {
+                lineNumber[0]++;
+                if ((lineNumber[0] > 1) || !line.equals(ClazzRecord.toCsvHeadline())) {
+                    mergeLine(records, line, lineNumber[0]);
+                }
+            });
+            if (lineNumber[0] == 0) {
+                log.log(Level.INFO, "Nothing imported from \"{0}\" (locked?), compaction is skipped.", uri);
+                return uri;
+            }
+            xPorter.exportCSV(uri, ClazzRecord.toCsvHeadline(), records.values().stream().map(ClazzRecord::toCSV));
+            log.log(Level.INFO, "Statistic \"{0}\" compacted to {1} classes.", new Object[] { uri, records.size() });
         }
-        return csvLines;
+        return uri;
     }
 
-    private void writeCSV(PrintWriter writer) {
-        SortedSet<ClazzRecord> statistics = getStatistics();
-        writer.println(ClazzRecord.toCsvHeadline());
-        for (ClazzRecord rec : statistics) {
-            writer.println(rec.toCSV());
+    private static void mergeLine(Map<String, ClazzRecord> records, String line, int lineNumber) {
+        try {
+            ClazzRecord r = ClazzRecord.fromCSV(line);
+            records.merge(r.classname(), r, (a, b) -> a.withCount(a.count() + b.count()));
+        } catch (IllegalArgumentException ex) {
+            log.log(Level.FINE, "Line {0} ({1}) is ignored ({2}).", new Object[]{lineNumber, line, ex.getMessage()});
         }
+    }
+
+    /**
+     * Returns true if only the loaded classes are appended at export.
+     *
+     * @return true if delta mode is enabled
+     * @since 3.1
+     */
+    @Override
+    public boolean isDeltaMode() {
+        return deltaMode;
+    }
+
+    /**
+     * Enables or disables the delta mode. The default value is set by
+     * {@link Config#DUMP_DELTA}.
+     *
+     * @param deltaMode true if only the loaded classes should be appended
+     * @since 3.1
+     */
+    @Override
+    public void setDeltaMode(boolean deltaMode) {
+        this.deltaMode = deltaMode;
+    }
+
+    private void writeCSV(PrintWriter writer, ClazzTable table) {
+        writer.println(ClazzRecord.toCsvHeadline());
+        streamStatistics(table, Set.of(classpathDigger.getLoadedClassnames()))
+                .forEach(rec -> writer.println(rec.toCSV()));
         writer.flush();
-        log.log(Level.FINE, "Statistics exported with {0} lines.", statistics.size());
+        log.log(Level.FINE, "Statistics exported with {0} lines.", table.size());
     }
 
-    private void importCSV() {
+    private ClazzTable importTable() {
         URI csvURI = getExportURI();
         if (exists(csvURI)) {
-            importCSV(csvURI);
+            ClazzTable table = getClazzTable().copy();
+            importCSV(table, csvURI);
+            return table;
         } else {
             log.log(Level.FINE, "No \"{0}\" for import available.", csvURI);
+            return getClazzTable();
         }
     }
 
@@ -265,54 +474,60 @@ public class ClazzStatistic extends ShutdownHook implements ClazzStatisticMBean
      *     <li>import of 10,000 lines: 130 - 150 ms (old), 20 - 30 ms (now)</li>
      *     <li>import of 60,000 lines: 200 - 230 ms (old), 50 - 80 ms (now)</li>
      * </ul>
-     * The times were measured on an MBP from 2020.
+     * The times were measured on an MBP from 2020. For reproducible numbers
+     * use the ClazzStatisticBenchmark of the benchmark module.
+     * <p>
+     * Since 3.1 the records are merged directly into the {@link ClazzTable}
+     * of this statistic (and classes which are no longer part of the
+     * classpath are kept as extra records). The table of the digger is not
+     * changed.
+     * </p>
      *
      * @param csvURI URI where the statistic should be imported from
      */
     public void importCSV(URI csvURI) {
+        importCSV(getClazzTable(), csvURI);
+    }
+
+    private void importCSV(ClazzTable clazzTable, URI csvURI) {
+        int[] lineNumber = { 0 };
         try {
-            List<String> csvLines = xPorter.importCSV(csvURI);
-            if (csvLines.isEmpty()) {
-                log.log(Level.FINE, "URI \"{0}\" is empty and not imported.", csvURI);
-                return;
-            }
-            Map<String, ClazzRecord> loaded = new HashMap<>();
-            for (ClazzRecord record : getAllClasses()) {
-                loaded.put(record.classname(), record);
-            }
-            int start = csvLines.get(0).equals(ClazzRecord.toCsvHeadline()) ? 1 : 0;
-            for (int i = start; i < csvLines.size(); i++) {
-                String line = csvLines.get(i);
-                try {
-                    ClazzRecord r = ClazzRecord.fromCSV(line);
-                    if (r.count() == 0) {
-                        continue;
-                    }
-                    String classname = r.classname();
-                    ClazzRecord clazzRecord = loaded.get(classname);
-                    if (clazzRecord != null) {
-                        getAllClasses().remove(clazzRecord);
-                        r = new ClazzRecord(clazzRecord.classpath(), clazzRecord.classname(),
-                                r.count() + clazzRecord.count());
-                    }
-                    getAllClasses().add(r);
-                } catch (IllegalArgumentException ex) {
-                    log.log(Level.FINE, "Line {0} ({1}) is ignored ({2}).", new Object[]{i + 1, line, ex.getMessage()});
-                    log.log(Level.FINER, "Details:", ex);
+            xPorter.importCSV(csvURI, line -> {
+                lineNumber[0]++;
+                if ((lineNumber[0] > 1) || !line.equals(ClazzRecord.toCsvHeadline())) {
+                    importLine(clazzTable, line, lineNumber[0]);
                 }
+            });
+            if (lineNumber[0] == 0) {
+                log.log(Level.FINE, "URI \"{0}\" is empty and not imported.", csvURI);
+            } else {
+                log.log(Level.FINE, "Class records from {0} imported.", csvURI);
             }
-            log.log(Level.FINE, "Class records from {0} imported.", csvURI);
         } catch (IOException ex) {
-            log.log(Level.INFO, "URI \"{0}\" cannot be imported ({0}).", new Object[]{csvURI, ex.getMessage()});
+            log.log(Level.INFO, "URI \"{0}\" cannot be imported ({1}).", new Object[]{csvURI, ex.getMessage()});
             log.log(Level.FINE, "Details:", ex);
         }
     }
 
+    private static void importLine(ClazzTable clazzTable, String line, int lineNumber) {
+        try {
+            ClazzRecord r = ClazzRecord.fromCSV(line);
+            if (r.count() > 0) {
+                clazzTable.merge(r);
+            }
+        } catch (IllegalArgumentException ex) {
+            log.log(Level.FINE, "Line {0} ({1}) is ignored ({2}).", new Object[]{lineNumber, line, ex.getMessage()});
+            log.log(Level.FINER, "Details:", ex);
+        }
+    }
+
     @Override
     public String getSummary() {
-        Set<ClazzRecord> clazzRecords = getStatistics();
-        long lc = clazzRecords.stream().filter(cr -> cr.count() > 0).count();
-        long ac = clazzRecords.size();
+        long lc = streamStatistics().filter(cr -> cr.count() > 0).count();
+        return getSummary(getClazzTable().size(), lc);
+    }
+
+    private static String getSummary(long ac, long lc) {
         long dc = ac - lc;
         return String.format("%d classes: %d loaded (%d%%), %d dead (%d%%)", ac,
                 lc, (lc * 100 + ac/2) / ac, dc, (dc * 100 + dc/2) / ac);
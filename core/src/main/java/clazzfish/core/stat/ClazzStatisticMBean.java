@@ -55,6 +55,33 @@ public interface ClazzStatisticMBean extends Shutdownable {
      */
     URI exportCSV(String filename) throws IOException;
 
+    /**
+     * Merges the delta segments into the statistic.
+     *
+     * @return URI of the compacted statistic
+     * @throws IOException in case of I/O problems
+     * @since 3.1
+     */
+    @Description("merges the delta segments into the statistic")
+    URI compact() throws IOException;
+
+    /**
+     * Returns true if only the classes loaded in this run are appended as
+     * delta at export.
+     *
+     * @return true if delta mode is enabled
+     * @since 3.1
+     */
+    boolean isDeltaMode();
+
+    /**
+     * Enables or disables the delta mode.
+     *
+     * @param deltaMode true if only the loaded classes should be appended
+     * @since 3.1
+     */
+    void setDeltaMode(boolean deltaMode);
+
     /**
      * Importes the statistics form the given filename or URI.
      *
@@ -0,0 +1,403 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.stat;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The ClazzTable stores the classes of the classpath column by column
+ * instead of one {@link ClazzRecord} per class:
+ * <ul>
+ *     <li>the classpath as index into an array of the (few) distinct
+ *         classpath URIs,</li>
+ *     <li>the classname as index into an array of the distinct packages
+ *         plus the simple name and</li>
+ *     <li>the count as atomic int array.</li>
+ * </ul>
+ * The rows are sorted by classname (and classpath) so the iteration returns
+ * the records in the same order as a {@link TreeSet}. The {@link ClazzRecord}s
+ * are created on demand during iteration only.
+ * <p>
+ * Classes which are not part of the classpath (e.g. from an imported
+ * statistic) can be added with {@link #merge(ClazzRecord)}. They are stored
+ * as extra records.
+ * </p>
+ * <p>
+ * A classname is found via an open-addressing hash index over the rows,
+ * i.e. lookup and merge are O(1). The structure of the table is immutable
+ * after it is built and the counts are updated atomically. So the table can
+ * be merged and iterated from different threads (e.g. JMX and the shutdown
+ * hook) without any further synchronization.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ClazzTable extends AbstractSet<ClazzRecord> {
+
+    private final URI[] classpathes;
+    private final int[] classpathIds;
+    private final String[] packages;
+    private final int[] packageIds;
+    private final String[] simpleNames;
+    private final AtomicIntegerArray counts;
+    private final int[] hashIndex;
+    private final ConcurrentNavigableMap<String, ClazzRecord> extras = new ConcurrentSkipListMap<>();
+
+    private ClazzTable(URI[] classpathes, int[] classpathIds, String[] packages, int[] packageIds,
+                       String[] simpleNames) {
+        this.classpathes = classpathes;
+        this.classpathIds = classpathIds;
+        this.packages = packages;
+        this.packageIds = packageIds;
+        this.simpleNames = simpleNames;
+        this.counts = new AtomicIntegerArray(simpleNames.length);
+        this.hashIndex = createHashIndex();
+    }
+
+    private ClazzTable(ClazzTable other) {
+        this.classpathes = other.classpathes;
+        this.classpathIds = other.classpathIds;
+        this.packages = other.packages;
+        this.packageIds = other.packageIds;
+        this.simpleNames = other.simpleNames;
+        this.counts = new AtomicIntegerArray(simpleNames.length);
+        for (int row = 0; row < simpleNames.length; row++) {
+            counts.set(row, other.counts.get(row));
+        }
+        this.hashIndex = other.hashIndex;
+        this.extras.putAll(other.extras);
+    }
+
+    /**
+     * The hash index contains row + 1 at the position of the hash code of
+     * the classname (or the next free position). 0 marks an empty slot.
+     */
+    private int[] createHashIndex() {
+        int[] index = new int[Math.max(2, Integer.highestOneBit(Math.max(1, simpleNames.length) * 2) * 2)];
+        int mask = index.length - 1;
+        for (int row = 0; row < simpleNames.length; row++) {
+            int i = spread(hashCode(row)) & mask;
+            while (index[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            index[i] = row + 1;
+        }
+        return index;
+    }
+
+    /**
+     * Calculates the same hash code as {@link String#hashCode()} of the
+     * classname but without building the classname.
+     */
+    private int hashCode(int row) {
+        String pkg = packages[packageIds[row]];
+        int h = pkg.hashCode();
+        if (!pkg.isEmpty()) {
+            h = 31 * h + '.';
+        }
+        String simple = simpleNames[row];
+        for (int i = 0; i < simple.length(); i++) {
+            h = 31 * h + simple.charAt(i);
+        }
+        return h;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Creates a builder for a new table.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a copy of this table with its own counts and extra records.
+     * The (immutable) columns and the hash index are shared with this table.
+     * So the copy needs only an additional int per row and can be merged
+     * without changing this table.
+     *
+     * @return a copy of this table
+     */
+    public ClazzTable copy() {
+        return new ClazzTable(this);
+    }
+
+    @Override
+    public int size() {
+        return simpleNames.length + extras.size();
+    }
+
+    /**
+     * Gets the classname of the given row.
+     *
+     * @param row the row
+     * @return the classname
+     */
+    public String getClassname(int row) {
+        String pkg = packages[packageIds[row]];
+        return pkg.isEmpty() ? simpleNames[row] : pkg + '.' + simpleNames[row];
+    }
+
+    /**
+     * Gets the record with the given classname.
+     *
+     * @param classname the classname
+     * @return the record or null if the table does not contain the class
+     */
+    public ClazzRecord get(String classname) {
+        int row = indexOf(classname);
+        if (row >= 0) {
+            return getRecord(row);
+        }
+        return extras.get(classname);
+    }
+
+    private ClazzRecord getRecord(int row) {
+        return new ClazzRecord(classpathes[classpathIds[row]], getClassname(row), counts.get(row));
+    }
+
+    /**
+     * Gets the row of the given classname.
+     *
+     * @param classname the classname
+     * @return the row or a negative number if the table does not contain it
+     */
+    public int indexOf(String classname) {
+        int mask = hashIndex.length - 1;
+        for (int i = spread(classname.hashCode()) & mask; hashIndex[i] != 0; i = (i + 1) & mask) {
+            int row = hashIndex[i] - 1;
+            if (compareClassname(row, classname) == 0) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the classname of the given row with the given classname
+     * without building the classname of the row.
+     */
+    private int compareClassname(int row, String classname) {
+        String pkg = packages[packageIds[row]];
+        String simple = simpleNames[row];
+        int offset = pkg.isEmpty() ? 0 : pkg.length() + 1;
+        int length = offset + simple.length();
+        int n = Math.min(length, classname.length());
+        for (int i = 0; i < n; i++) {
+            char c;
+            if (i < pkg.length()) {
+                c = pkg.charAt(i);
+            } else if (i < offset) {
+                c = '.';
+            } else {
+                c = simple.charAt(i - offset);
+            }
+            if (c != classname.charAt(i)) {
+                return c - classname.charAt(i);
+            }
+        }
+        return length - classname.length();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof ClazzRecord)) {
+            return false;
+        }
+        ClazzRecord other = (ClazzRecord) o;
+        ClazzRecord record = get(other.classname());
+        return (record != null) && record.equals(other);
+    }
+
+    /**
+     * Merges the given record into the table. If the class is part of the
+     * table its count is increased by the count of the given record (the
+     * classpath of the table wins). Otherwise it is stored as extra record.
+     * The merge is atomic, i.e. no count is lost if several threads merge
+     * the same class.
+     *
+     * @param record the record to be merged
+     */
+    public void merge(ClazzRecord record) {
+        int row = indexOf(record.classname());
+        if (row >= 0) {
+            counts.addAndGet(row, record.count());
+        } else {
+            extras.merge(record.classname(), record,
+                    (a, b) -> new ClazzRecord(a.classpath(), a.classname(), a.count() + b.count()));
+        }
+    }
+
+    /**
+     * Gets the distinct classpathes of all classes.
+     *
+     * @return the classpathes
+     */
+    public Set<URI> getClasspathes() {
+        Set<URI> uris = new TreeSet<>();
+        boolean[] used = new boolean[classpathes.length];
+        for (int id : classpathIds) {
+            used[id] = true;
+        }
+        for (int i = 0; i < classpathes.length; i++) {
+            if (used[i]) {
+                uris.add(classpathes[i]);
+            }
+        }
+        for (ClazzRecord record : extras.values()) {
+            if (record.classpath() != null) {
+                uris.add(record.classpath());
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Iterates in sorted order over the rows and the extra records.
+     *
+     * @return a sorted iterator
+     */
+    @Override
+    public Iterator<ClazzRecord> iterator() {
+        return new Iterator<>() {
+            private int row = 0;
+            private final Iterator<ClazzRecord> extraIterator = extras.values().iterator();
+            private ClazzRecord extra = nextExtra();
+
+            private ClazzRecord nextExtra() {
+                return extraIterator.hasNext() ? extraIterator.next() : null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return (row < simpleNames.length) || (extra != null);
+            }
+
+            @Override
+            public ClazzRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                if ((extra == null) || ((row < simpleNames.length) && (compareClassname(row, extra.classname()) < 0))) {
+                    ClazzRecord record = getRecord(row);
+                    row++;
+                    return record;
+                }
+                ClazzRecord record = extra;
+                extra = nextExtra();
+                return record;
+            }
+        };
+    }
+
+    /**
+     * The Builder collects the classes and their classpath. Classpath URIs
+     * and packages are interned, i.e. each distinct value is stored only
+     * once.
+     */
+    public static final class Builder {
+
+        private final Map<URI, Integer> classpathIds = new LinkedHashMap<>();
+        private final List<URI> uris = new ArrayList<>();
+        private final List<String> classnames = new ArrayList<>();
+        private int[] rowClasspathIds = new int[1024];
+
+        private Builder() {
+        }
+
+        /**
+         * Adds the classes of the given classpath.
+         *
+         * @param classpath  URI of the classpath
+         * @param classnames names of the classes
+         * @return the builder itself
+         */
+        public Builder add(URI classpath, Collection<String> classnames) {
+            Integer id = classpathIds.computeIfAbsent(classpath, uri -> {
+                uris.add(uri);
+                return uris.size() - 1;
+            });
+            for (String name : classnames) {
+                if (this.classnames.size() == rowClasspathIds.length) {
+                    rowClasspathIds = Arrays.copyOf(rowClasspathIds, rowClasspathIds.length * 2);
+                }
+                rowClasspathIds[this.classnames.size()] = id;
+                this.classnames.add(name);
+            }
+            return this;
+        }
+
+        /**
+         * Adds a single class.
+         *
+         * @param classpath URI of the classpath
+         * @param classname name of the class
+         * @return the builder itself
+         */
+        public Builder add(URI classpath, String classname) {
+            return add(classpath, Collections.singletonList(classname));
+        }
+
+        /**
+         * Builds the table.
+         *
+         * @return the sorted table
+         */
+        public ClazzTable build() {
+            int n = classnames.size();
+            Integer[] order = new Integer[n];
+            for (int i = 0; i < n; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                int cmp = classnames.get(a).compareTo(classnames.get(b));
+                return (cmp != 0) ? cmp : uris.get(rowClasspathIds[a]).compareTo(uris.get(rowClasspathIds[b]));
+            });
+            Map<String, Integer> packageIds = new HashMap<>();
+            List<String> packages = new ArrayList<>();
+            int[] cpIds = new int[n];
+            int[] pkgIds = new int[n];
+            String[] simpleNames = new String[n];
+            for (int i = 0; i < n; i++) {
+                String classname = classnames.get(order[i]);
+                int dot = classname.lastIndexOf('.');
+                String pkg = (dot < 0) ? "" : classname.substring(0, dot);
+                pkgIds[i] = packageIds.computeIfAbsent(pkg, p -> {
+                    packages.add(p);
+                    return packages.size() - 1;
+                });
+                simpleNames[i] = classname.substring(dot + 1);
+                cpIds[i] = rowClasspathIds[order[i]];
+            }
+            return new ClazzTable(uris.toArray(new URI[0]), cpIds, packages.toArray(new String[0]), pkgIds,
+                    simpleNames);
+        }
+
+    }
+
+}
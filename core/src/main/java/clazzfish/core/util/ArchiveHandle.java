@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * The ArchiveHandle is a shared, reference-counted handle of an outer
+ * archive (e.g. a fat jar with nested jars). All callers which open the
+ * same archive share the same state, i.e. the archive is mapped (or opened
+ * as {@link ZipFile}) and its central directory is read only once, as long
+ * as a handle is open by somebody. With the last {@link #close()} the
+ * shared state is removed from the cache and the archive is released.
+ * <p>
+ * So if you want to read several nested archives of a fat jar, open the
+ * handle of the fat jar before and close it afterwards. Each caller gets
+ * its own handle whose {@link #close()} is idempotent, i.e. a second close
+ * of the same handle does not release the archive for the other callers.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ArchiveHandle implements Closeable {
+
+    private static final Logger log = Logger.getLogger(ArchiveHandle.class.getName());
+    private static final Map<String, Archive> CACHE = new HashMap<>();
+    private final Archive archive;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private ArchiveHandle(Archive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Opens a handle of the given archive. If the archive is already open
+     * the reference count of it is increased and the new handle shares the
+     * state of the open archive.
+     *
+     * @param archive the (outer) archive
+     * @return a new handle which must be closed
+     */
+    public static ArchiveHandle open(File archive) {
+        String key = archive.getAbsolutePath();
+        synchronized (CACHE) {
+            Archive shared = CACHE.computeIfAbsent(key, k -> new Archive(archive, k));
+            shared.refs++;
+            return new ArchiveHandle(shared);
+        }
+    }
+
+    /**
+     * Checks if a handle of the given archive is open.
+     *
+     * @param archive the (outer) archive
+     * @return true if somebody holds a handle
+     */
+    public static boolean isOpen(File archive) {
+        synchronized (CACHE) {
+            return CACHE.containsKey(archive.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Gets the archive.
+     *
+     * @return the archive
+     */
+    public File getFile() {
+        return archive.file;
+    }
+
+    /**
+     * Gets the memory-mapped content of the archive. The archive is mapped
+     * with the first call.
+     *
+     * @return a read-only buffer in little endian order
+     * @throws IOException if the archive cannot be mapped
+     */
+    public ByteBuffer getBuffer() throws IOException {
+        return getArchive().getBuffer();
+    }
+
+    /**
+     * Gets the offset of the central directory entry with the given name.
+     * The central directory is read into an index with the first call.
+     *
+     * @param name name of the entry
+     * @return the offset in {@link #getBuffer()} or -1 if not found
+     * @throws IOException if the archive cannot be read
+     */
+    public int getCentralEntry(String name) throws IOException {
+        return getArchive().getCentralEntry(name);
+    }
+
+    /**
+     * Gets the archive as {@link ZipFile}. It is opened with the first call
+     * and must not be closed by the caller.
+     *
+     * @return the shared zip file
+     * @throws IOException if the archive cannot be opened
+     */
+    public ZipFile getZipFile() throws IOException {
+        return getArchive().getZipFile();
+    }
+
+    private Archive getArchive() {
+        if (closed.get()) {
+            throw new IllegalStateException(this + " is closed");
+        }
+        return archive;
+    }
+
+    /**
+     * Decreases the reference count. With the last close the archive is
+     * removed from the cache and released. A second close of the same
+     * handle is ignored.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            log.log(Level.FINER, "{0} is already closed.", this);
+            return;
+        }
+        synchronized (CACHE) {
+            archive.refs--;
+            if (archive.refs > 0) {
+                return;
+            }
+            CACHE.remove(archive.key);
+        }
+        archive.release();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " '" + archive.file + "'";
+    }
+
+
+
+    /**
+     * The shared state of an open archive. The reference count is guarded
+     * by the lock of the {@link #CACHE}.
+     */
+    private static final class Archive {
+
+        private final File file;
+        private final String key;
+        private int refs;
+        private ByteBuffer buffer;
+        private Map<String, Integer> centralEntries;
+        private ZipFile zipFile;
+
+        private Archive(File file, String key) {
+            this.file = file;
+            this.key = key;
+        }
+
+        private synchronized ByteBuffer getBuffer() throws IOException {
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                    if (channel.size() > Integer.MAX_VALUE) {
+                        throw new ZipException(file + " is too big to be mapped");
+                    }
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                }
+            }
+            return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private synchronized int getCentralEntry(String name) throws IOException {
+            if (centralEntries == null) {
+                centralEntries = NestedArchive.readCentralEntries(getBuffer());
+                log.log(Level.FINER, "{0} central entries of {1} indexed.",
+                        new Object[]{centralEntries.size(), file});
+            }
+            return centralEntries.getOrDefault(name, -1);
+        }
+
+        private synchronized ZipFile getZipFile() throws IOException {
+            if (zipFile == null) {
+                zipFile = new NestedZipFile(file);
+            }
+            return zipFile;
+        }
+
+        private synchronized void release() {
+            if (zipFile != null) {
+                try {
+                    zipFile.close();
+                } catch (IOException ex) {
+                    log.log(Level.FINE, String.format("Cannot close %s:", zipFile), ex);
+                }
+                zipFile = null;
+            }
+            buffer = null;
+            centralEntries = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import clazzfish.core.Config;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ArchiveIndex is an on-disk cache for the elements (class and resource
+ * names) of an archive. Jars rarely change between two starts of the JVM.
+ * So instead of opening and enumerating them again the elements are read from
+ * a small index file which is memory-mapped.
+ * <p>
+ * For each archive a separate index file is stored below the "index"
+ * directory of {@link Config#getDumpDir()}. It contains the path, size and
+ * the modification time of the archive (for nested archives of the outer
+ * archive). If one of them changes the index file is no longer valid and
+ * will be overwritten. The names are stored with front coding, i.e. only the
+ * suffix which differs from the previous name is stored.
+ * </p>
+ * <p>
+ * The index is disabled by default. You can enable it with the property
+ * 'clazzfish.index.cache' (see {@link Config#INDEX_CACHE}).
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ArchiveIndex {
+
+    private static final Logger log = Logger.getLogger(ArchiveIndex.class.getName());
+    private static final int MAGIC = 0x435a4631;    // "CZF1"
+    /** The default index which is configured by {@link Config#DEFAULT}. */
+    public static final ArchiveIndex DEFAULT = of(Config.DEFAULT);
+    /** An index which is always empty. */
+    public static final ArchiveIndex DISABLED = new ArchiveIndex(new File("index"), false);
+
+    private final File dir;
+    private final boolean enabled;
+
+    /**
+     * Creates an index which is stored in the given directory.
+     *
+     * @param dir directory of the index files
+     */
+    public ArchiveIndex(File dir) {
+        this(dir, true);
+    }
+
+    private ArchiveIndex(File dir, boolean enabled) {
+        this.dir = dir;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Creates the index from the given config.
+     *
+     * @param config the config
+     * @return the index (which may be disabled)
+     */
+    public static ArchiveIndex of(Config config) {
+        return new ArchiveIndex(new File(config.getDumpDir(), "index"), config.isIndexCacheEnabled());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    /**
+     * Gets the cached elements of the given archive. If the index is
+     * disabled, not yet available or outdated, null is returned.
+     *
+     * @param archive the archive, e.g. "a.jar" or "a.war!/WEB-INF/lib/b.jar"
+     * @return the elements or null
+     */
+    public Collection<String> get(File archive) {
+        if (!enabled) {
+            return null;
+        }
+        File indexFile = getIndexFile(archive);
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(indexFile.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            List<String> elements = read(buffer, archive);
+            if (elements != null) {
+                log.log(Level.FINER, "{0} element(s) of {1} read from index.",
+                        new Object[]{elements.size(), archive});
+            }
+            return elements;
+        } catch (IOException | RuntimeException ex) {
+            log.log(Level.FINE, String.format("Cannot read index file %s:", indexFile), ex);
+            return null;
+        }
+    }
+
+    private static List<String> read(ByteBuffer buffer, File archive) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            return null;
+        }
+        String path = readString(buffer, "", new byte[256]);
+        Stamp stamp = Stamp.of(archive);
+        if (!path.equals(archive.getPath()) || (buffer.getLong() != stamp.length)
+                || (buffer.getLong() != stamp.lastModified)) {
+            log.log(Level.FINER, "Index of {0} is outdated.", archive);
+            return null;
+        }
+        int n = buffer.getInt();
+        List<String> elements = new ArrayList<>(n);
+        byte[] bytes = new byte[256];
+        String previous = "";
+        for (int i = 0; i < n; i++) {
+            previous = readString(buffer, previous, bytes);
+            elements.add(previous);
+        }
+        return elements;
+    }
+
+    private static String readString(ByteBuffer buffer, String previous, byte[] bytes) {
+        int prefix = Short.toUnsignedInt(buffer.getShort());
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length > bytes.length) {
+            bytes = new byte[length];
+        }
+        buffer.get(bytes, 0, length);
+        return previous.substring(0, prefix) + new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Stores the elements of the given archive. The stamp of the archive is
+     * taken now, so use {@link #put(File, Stamp, Collection)} if the archive
+     * was read some time ago.
+     *
+     * @param archive  the archive, e.g. "a.jar" or "a.war!/WEB-INF/lib/b.jar"
+     * @param elements the elements of the archive
+     */
+    public void put(File archive, Collection<String> elements) {
+        put(archive, Stamp.of(archive), elements);
+    }
+
+    /**
+     * Stores the elements of the given archive. The index file is written
+     * into a temporary file first and then moved so that other JVMs never see
+     * an incomplete index.
+     *
+     * @param archive  the archive, e.g. "a.jar" or "a.war!/WEB-INF/lib/b.jar"
+     * @param stamp    the stamp of the archive taken before it was read
+     * @param elements the elements of the archive
+     */
+    public void put(File archive, Stamp stamp, Collection<String> elements) {
+        if (!enabled) {
+            return;
+        }
+        File indexFile = getIndexFile(archive);
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(dir.toPath());
+            tmpFile = Files.createTempFile(dir.toPath(), indexFile.getName(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                out.writeInt(MAGIC);
+                writeString(out, "", archive.getPath());
+                out.writeLong(stamp.length);
+                out.writeLong(stamp.lastModified);
+                out.writeInt(elements.size());
+                String previous = "";
+                for (String name : elements) {
+                    writeString(out, previous, name);
+                    previous = name;
+                }
+            }
+            try {
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmpFile = null;
+            log.log(Level.FINER, "{0} element(s) of {1} written to {2}.",
+                    new Object[]{elements.size(), archive, indexFile});
+        } catch (IOException ex) {
+            log.log(Level.FINE, String.format("Cannot write index file %s:", indexFile), ex);
+        } finally {
+            deleteQuietly(tmpFile);
+        }
+    }
+
+    private static void deleteQuietly(Path tmpFile) {
+        if (tmpFile != null) {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException ex) {
+                log.log(Level.FINE, String.format("Cannot delete %s:", tmpFile), ex);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String previous, String name) throws IOException {
+        int prefix = 0;
+        int max = Math.min(Math.min(previous.length(), name.length()), 0xFFFF);
+        while ((prefix < max) && (previous.charAt(prefix) == name.charAt(prefix))) {
+            prefix++;
+        }
+        if ((prefix > 0) && Character.isHighSurrogate(name.charAt(prefix - 1))) {
+            prefix--;
+        }
+        byte[] suffix = name.substring(prefix).getBytes(StandardCharsets.UTF_8);
+        if (suffix.length > 0xFFFF) {
+            throw new IOException("name too long: " + name);
+        }
+        out.writeShort(prefix);
+        out.writeShort(suffix.length);
+        out.write(suffix);
+    }
+
+    /**
+     * Removes all index files.
+     */
+    public void clear() {
+        File[] files = dir.listFiles((d, name) -> name.endsWith(".idx"));
+        if (files != null) {
+            for (File f : files) {
+                if (!f.delete()) {
+                    log.log(Level.FINE, "Index file {0} could not be deleted.", f);
+                }
+            }
+        }
+    }
+
+    private File getIndexFile(File archive) {
+        String path = archive.getPath();
+        String name = getOuterArchive(archive).getName();
+        return new File(dir, String.format("%s-%08x.idx", name, path.hashCode()));
+    }
+
+    private static File getOuterArchive(File archive) {
+        String path = archive.getPath();
+        int i = path.indexOf('!');
+        return (i < 0) ? archive : new File(path.substring(0, i));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + dir + (enabled ? ")" : ", disabled)");
+    }
+
+    /**
+     * The Stamp holds the size and the modification time of an archive (for
+     * nested archives of the outer archive). It should be taken before the
+     * archive is read so that a change during the read invalidates the index.
+     */
+    public static final class Stamp {
+
+        private final long length;
+        private final long lastModified;
+
+        private Stamp(long length, long lastModified) {
+            this.length = length;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Takes the stamp of the given archive.
+         *
+         * @param archive the archive, e.g. "a.jar" or "a.war!/WEB-INF/lib/b.jar"
+         * @return the current stamp
+         */
+        public static Stamp of(File archive) {
+            File outer = getOuterArchive(archive);
+            return new Stamp(outer.length(), outer.lastModified());
+        }
+
+    }
+
+}
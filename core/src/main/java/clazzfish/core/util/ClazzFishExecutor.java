@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import clazzfish.core.Config;
+import clazzfish.core.jmx.MBeanFinder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The ClazzFishExecutor is the shared executor for all background tasks of
+ * ClazzFish (e.g. the scan of the classpath at startup). In contrast to a
+ * cached thread pool
+ * <ul>
+ *     <li>the number of threads is limited (see
+ *         {@link Config#getExecutorThreads()}),</li>
+ *     <li>the queue is bounded (see {@link #QUEUE_CAPACITY}),</li>
+ *     <li>the threads are daemon threads with minimal priority and</li>
+ *     <li>idle threads are terminated after 30 seconds.</li>
+ * </ul>
+ * If the queue is full a {@link Future} (e.g. a {@link FutureTask}) is
+ * not queued but left for the caller which needs the result (see
+ * {@link #get(FutureTask)}). Other tasks are executed by the calling thread.
+ * <p>
+ * For recursive tasks (e.g. the walk through a directory tree by the
+ * ResourceWalker) a shared {@link ForkJoinPool} with the same number of
+ * daemon threads is provided by {@link #getForkJoinPool()}. Work stealing
+ * is needed for these tasks, which would block the bounded executor.
+ * </p>
+ * So the background tasks do not compete with the startup of the
+ * application and do not prevent the JVM from exiting. Optionally virtual
+ * threads are used (see {@link Config#isExecutorVirtual()}) if they are
+ * available (Java 21 or newer).
+ * <p>
+ * The queue depth, the wait time in the queue and the run time of the tasks
+ * can be watched via JMX (see {@link ClazzFishExecutorMBean}).
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class ClazzFishExecutor implements Executor, ClazzFishExecutorMBean {
+
+    private static final Logger log = Logger.getLogger(ClazzFishExecutor.class.getName());
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+    /** Maximal number of tasks which wait for execution. */
+    public static final int QUEUE_CAPACITY = 1024;
+    /** The executor configured by {@link Config#DEFAULT}. */
+    public static final ClazzFishExecutor DEFAULT =
+            new ClazzFishExecutor(Config.DEFAULT.getExecutorThreads(), Config.DEFAULT.isExecutorVirtual());
+
+    private final int threads;
+    private final int queueCapacity;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private volatile ForkJoinPool forkJoinPool;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Creates a new executor.
+     *
+     * @param threads maximal number of tasks executed in parallel
+     * @param virtual true if virtual threads should be used
+     */
+    ClazzFishExecutor(int threads, boolean virtual) {
+        this(threads, QUEUE_CAPACITY, virtual);
+    }
+
+    /**
+     * Creates a new executor with the given queue capacity.
+     *
+     * @param threads       maximal number of tasks executed in parallel
+     * @param queueCapacity maximal number of waiting tasks
+     * @param virtual       true if virtual threads should be used
+     */
+    ClazzFishExecutor(int threads, int queueCapacity, boolean virtual) {
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        ExecutorService virtualExecutor = virtual ? createVirtualExecutor() : null;
+        if (virtualExecutor == null) {
+            this.executor = createPlatformExecutor(this.threads, this.queueCapacity);
+            this.permits = null;
+        } else {
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(this.threads);
+        }
+    }
+
+    private static ExecutorService createPlatformExecutor(int threads, int queueCapacity) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "clazzfish-" + THREAD_NUMBER.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    /**
+     * Virtual threads are available since Java 21. Because ClazzFish is
+     * compiled for Java 11 they are created via reflection.
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            log.log(Level.INFO, "Virtual threads are not available - platform threads are used ({0}).",
+                    ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Executes the given task in the background. If the queue is full a
+     * {@link Future} is left for the caller of {@link #get(FutureTask)},
+     * other tasks are executed by the calling thread.
+     *
+     * @param task the task
+     */
+    @Override
+    public void execute(Runnable task) {
+        long submitted = System.nanoTime();
+        try {
+            if (queued.incrementAndGet() > queueCapacity) {
+                throw new RejectedExecutionException("queue is full");
+            }
+            executor.execute(() -> run(task, submitted));
+        } catch (RejectedExecutionException ex) {
+            queued.decrementAndGet();
+            rejected.increment();
+            if (task instanceof Future) {
+                log.log(Level.FINE, "{0} is not queued ({1}) and will be executed on demand.",
+                        new Object[]{task, ex.getMessage()});
+            } else {
+                log.log(Level.FINE, "{0} is executed by the caller ({1}).", new Object[]{task, ex.getMessage()});
+                task.run();
+            }
+        }
+    }
+
+    /**
+     * Gets the shared {@link ForkJoinPool} for recursive tasks. It has the
+     * same number of (daemon) threads as this executor and is created with
+     * the first call.
+     *
+     * @return the shared fork/join pool
+     */
+    public ForkJoinPool getForkJoinPool() {
+        ForkJoinPool pool = forkJoinPool;
+        if (pool == null) {
+            synchronized (this) {
+                if (forkJoinPool == null) {
+                    forkJoinPool = new ForkJoinPool(threads, p -> {
+                        ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                        t.setName("clazzfish-fj-" + THREAD_NUMBER.incrementAndGet());
+                        t.setDaemon(true);
+                        t.setPriority(Thread.MIN_PRIORITY);
+                        return t;
+                    }, null, false);
+                }
+                pool = forkJoinPool;
+            }
+        }
+        return pool;
+    }
+
+    private void run(Runnable task, long submitted) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        long started = System.nanoTime();
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        waitNanos.add(started - submitted);
+        maxWaitNanos.accumulate(started - submitted);
+        try {
+            task.run();
+        } finally {
+            runNanos.add(System.nanoTime() - started);
+            completed.increment();
+            active.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Waits for the result of the given task. If the task is not yet started
+     * (e.g. because it is still in the queue) it is executed by the calling
+     * thread. So the caller does not wait for a background thread with low
+     * priority and tasks which wait for other tasks cannot block the
+     * executor.
+     *
+     * @param task the task
+     * @param <T>  the type of the result
+     * @return the result of the task
+     * @throws InterruptedException if the current thread was interrupted
+     * @throws ExecutionException   if the task failed
+     */
+    public static <T> T get(FutureTask<T> task) throws InterruptedException, ExecutionException {
+        task.run();
+        return task.get();
+    }
+
+    /**
+     * Registers the executor as MBean.
+     */
+    public void registerMeAsMBean() {
+        MBeanFinder.registerMBean(this);
+    }
+
+    @Override
+    public int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return permits != null;
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    @Override
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    @Override
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public double getAvgWaitTime() {
+        long n = completed.sum() + active.get();
+        return (n == 0) ? 0.0 : waitNanos.sum() / 1_000_000.0 / n;
+    }
+
+    @Override
+    public double getMaxWaitTime() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public double getAvgRunTime() {
+        long n = completed.sum();
+        return (n == 0) ? 0.0 : runNanos.sum() / 1_000_000.0 / n;
+    }
+
+    @Override
+    public void resetStatistic() {
+        completed.reset();
+        waitNanos.reset();
+        runNanos.reset();
+        maxWaitNanos.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%d %s threads, %d queued, %d active)", getClass().getSimpleName(), threads,
+                isVirtual() ? "virtual" : "daemon", getQueueSize(), getActiveCount());
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import clazzfish.core.jmx.Description;
+
+/**
+ * JMX-Interface for the {@link ClazzFishExecutor}.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public interface ClazzFishExecutorMBean {
+
+    /**
+     * Gets the maximal number of tasks which are executed in parallel.
+     *
+     * @return number of threads
+     */
+    int getThreads();
+
+    /**
+     * Returns true if virtual threads are used.
+     *
+     * @return true for virtual threads
+     */
+    boolean isVirtual();
+
+    /**
+     * Gets the number of tasks which are waiting for execution.
+     *
+     * @return queue depth
+     */
+    int getQueueSize();
+
+    /**
+     * Gets the number of tasks which are executed at the moment.
+     *
+     * @return number of active tasks
+     */
+    int getActiveCount();
+
+    /**
+     * Gets the number of finished tasks.
+     *
+     * @return number of completed tasks
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * Gets the number of tasks which were not queued because the queue was
+     * full. They were executed by the caller or on demand.
+     *
+     * @return number of rejected tasks
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Gets the average time a task waits in the queue.
+     *
+     * @return average wait time in ms
+     */
+    double getAvgWaitTime();
+
+    /**
+     * Gets the maximal time a task waited in the queue.
+     *
+     * @return maximal wait time in ms
+     */
+    double getMaxWaitTime();
+
+    /**
+     * Gets the average execution time of a task.
+     *
+     * @return average run time in ms
+     */
+    double getAvgRunTime();
+
+    /**
+     * Resets the wait and run times.
+     */
+    @Description("resets the wait and run times")
+    void resetStatistic();
+
+}
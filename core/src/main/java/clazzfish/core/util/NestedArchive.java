@@ -0,0 +1,350 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * The NestedArchive reads the entries of nested archives (e.g.
+ * "app.jar!/BOOT-INF/lib/lib.jar") without extracting them into temporary
+ * files as {@link NestedZipFile} does:
+ * <ul>
+ *     <li>The outer archive is memory-mapped and its central directory is
+ *         indexed once via a shared {@link ArchiveHandle}.</li>
+ *     <li>A stored (uncompressed) nested archive is a slice of the outer
+ *         archive. Its central directory is read directly from this
+ *         slice.</li>
+ *     <li>A compressed nested archive is inflated as stream and its local
+ *         headers are read with a {@link ZipInputStream}.</li>
+ * </ul>
+ * ZIP64 archives are not supported. For them a {@link ZipException} is
+ * thrown so that the caller can fall back to {@link NestedZipFile}.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class NestedArchive {
+
+    private static final Logger log = Logger.getLogger(NestedArchive.class.getName());
+    private static final int LOC_SIG = 0x04034b50;
+    private static final int CEN_SIG = 0x02014b50;
+    private static final int END_SIG = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int CEN_SIZE = 46;
+    private static final int LOC_SIZE = 30;
+
+    private NestedArchive() {
+    }
+
+    /**
+     * Reads the names of the entries of the given archive. The archive can
+     * be a normal file or a nested archive (e.g. "a.ear!/b.war!/c.jar").
+     *
+     * @param archive a normal or nested archive
+     * @return the names of the entries
+     * @throws FileNotFoundException if a nested archive does not exist
+     * @throws ZipException if the archive is not supported (e.g. ZIP64)
+     * @throws IOException in case of other I/O problems
+     */
+    public static List<String> readEntryNames(File archive) throws IOException {
+        List<ZipEntry> entries = readEntries(archive);
+        List<String> names = new ArrayList<>(entries.size());
+        for (ZipEntry entry : entries) {
+            names.add(entry.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Reads the entries of the given archive. The archive can be a normal
+     * file or a nested archive (e.g. "a.ear!/b.war!/c.jar"). The entries
+     * contain the name, the sizes and the CRC. Only for a compressed
+     * nested archive the sizes and CRC may be unknown (-1) if they are
+     * stored behind the data of an entry.
+     *
+     * @param archive a normal or nested archive
+     * @return the entries
+     * @throws FileNotFoundException if a nested archive does not exist
+     * @throws ZipException if the archive is not supported (e.g. ZIP64)
+     * @throws IOException in case of other I/O problems
+     * @since 3.1
+     */
+    public static List<ZipEntry> readEntries(File archive) throws IOException {
+        String[] pathes = archive.getPath().split("!");
+        File outer = new File(pathes[0]);
+        if (pathes.length == 1) {
+            return readEntries(outer, new ZipFile(outer));
+        }
+        try (ArchiveHandle handle = ArchiveHandle.open(outer)) {
+            int cen = handle.getCentralEntry(normalize(pathes[1]));
+            return readEntries(handle.getBuffer(), cen, pathes, 1, outer);
+        }
+    }
+
+    private static List<ZipEntry> readEntries(File file, ZipFile zipFile) throws IOException {
+        try (zipFile) {
+            List<ZipEntry> entries = new ArrayList<>(zipFile.size());
+            Enumeration<? extends ZipEntry> enumeration = zipFile.entries();
+            while (enumeration.hasMoreElements()) {
+                entries.add(enumeration.nextElement());
+            }
+            log.log(Level.FINER, "{0} entries read from {1}.", new Object[]{entries.size(), file});
+            return entries;
+        }
+    }
+
+    private static List<ZipEntry> readEntries(ByteBuffer zip, int cen, String[] pathes, int i, File outer)
+            throws IOException {
+        String name = normalize(pathes[i]);
+        if (cen < 0) {
+            throw new FileNotFoundException("entry '" + pathes[i] + "' not found in " + outer);
+        }
+        int method = zip.getShort(cen + 10) & 0xFFFF;
+        long compressedSize = zip.getInt(cen + 20) & 0xFFFFFFFFL;
+        long offset = zip.getInt(cen + 42) & 0xFFFFFFFFL;
+        if ((compressedSize == 0xFFFFFFFFL) || (offset == 0xFFFFFFFFL)) {
+            throw new ZipException("ZIP64 entry '" + name + "' in " + outer + " is not supported");
+        }
+        int loc = (int) offset + getPrefixLength(zip);
+        if (zip.getInt(loc) != LOC_SIG) {
+            throw new ZipException("invalid local header of '" + name + "' in " + outer);
+        }
+        int data = loc + LOC_SIZE + (zip.getShort(loc + 26) & 0xFFFF) + (zip.getShort(loc + 28) & 0xFFFF);
+        ByteBuffer content = slice(zip, data, (int) compressedSize);
+        if (method == ZipEntry.STORED) {
+            if (i + 1 < pathes.length) {
+                return readEntries(content, findCentralEntry(content, normalize(pathes[i + 1])), pathes, i + 1,
+                        outer);
+            }
+            return readCentralDirectory(content, outer);
+        } else if (method == ZipEntry.DEFLATED) {
+            Inflater inflater = new Inflater(true);
+            try (InputStream istream = new InflaterInputStream(new ByteBufferInputStream(content), inflater, 8192)) {
+                return readEntries(new ZipInputStream(istream), pathes, i + 1, outer);
+            } finally {
+                inflater.end();
+            }
+        } else {
+            throw new ZipException("compression method " + method + " of '" + name + "' is not supported");
+        }
+    }
+
+    /**
+     * Reads the entries of a (compressed) nested archive from its local
+     * headers. If there are further nested archives the stream of the
+     * matching entry is read the same way.
+     */
+    private static List<ZipEntry> readEntries(ZipInputStream zipStream, String[] pathes, int i, File outer)
+            throws IOException {
+        List<ZipEntry> entries = new ArrayList<>();
+        String name = (i < pathes.length) ? normalize(pathes[i]) : null;
+        for (ZipEntry entry = zipStream.getNextEntry(); entry != null; entry = zipStream.getNextEntry()) {
+            if (name == null) {
+                entries.add(entry);
+            } else if (name.equals(entry.getName())) {
+                return readEntries(new ZipInputStream(zipStream), pathes, i + 1, outer);
+            }
+        }
+        if (name != null) {
+            throw new FileNotFoundException("entry '" + pathes[i] + "' not found in " + outer);
+        }
+        return entries;
+    }
+
+    private static String normalize(String name) {
+        String normalized = name.replace('\\', '/');
+        return normalized.startsWith("/") ? normalized.substring(1) : normalized;
+    }
+
+    private static int findEnd(ByteBuffer zip) throws ZipException {
+        int min = Math.max(0, zip.limit() - END_SIZE - 0xFFFF);
+        for (int i = zip.limit() - END_SIZE; i >= min; i--) {
+            if (zip.getInt(i) == END_SIG) {
+                return i;
+            }
+        }
+        throw new ZipException("end of central directory not found");
+    }
+
+    private static int findCentralEntry(ByteBuffer zip, String name) throws ZipException {
+        byte[] expected = name.getBytes(StandardCharsets.UTF_8);
+        int end = findEnd(zip);
+        int cen = getCentralDirectoryOffset(zip, end);
+        while ((cen + CEN_SIZE <= end) && (zip.getInt(cen) == CEN_SIG)) {
+            int nameLength = zip.getShort(cen + 28) & 0xFFFF;
+            if ((nameLength == expected.length) && equals(zip, cen + CEN_SIZE, expected)) {
+                return cen;
+            }
+            cen = nextCentralEntry(zip, cen);
+        }
+        return -1;
+    }
+
+    private static List<ZipEntry> readCentralDirectory(ByteBuffer zip, File outer) throws ZipException {
+        List<ZipEntry> entries = new ArrayList<>(zip.getShort(findEnd(zip) + 10) & 0xFFFF);
+        readCentralDirectory(zip, (name, cen) -> entries.add(toZipEntry(zip, cen, name)));
+        log.log(Level.FINER, "{0} entries read from nested archive in {1}.", new Object[]{entries.size(), outer});
+        return entries;
+    }
+
+    private static ZipEntry toZipEntry(ByteBuffer zip, int cen, String name) {
+        ZipEntry entry = new ZipEntry(name);
+        int method = zip.getShort(cen + 10) & 0xFFFF;
+        if ((method == ZipEntry.STORED) || (method == ZipEntry.DEFLATED)) {
+            entry.setMethod(method);
+        }
+        entry.setCrc(zip.getInt(cen + 16) & 0xFFFFFFFFL);
+        long compressedSize = zip.getInt(cen + 20) & 0xFFFFFFFFL;
+        long size = zip.getInt(cen + 24) & 0xFFFFFFFFL;
+        if (compressedSize != 0xFFFFFFFFL) {
+            entry.setCompressedSize(compressedSize);
+        }
+        if (size != 0xFFFFFFFFL) {
+            entry.setSize(size);
+        }
+        return entry;
+    }
+
+    /**
+     * Reads the central directory of the given archive into an index which
+     * maps the names of the entries to the offsets of their central
+     * directory entries.
+     *
+     * @param zip the archive
+     * @return the index
+     * @throws ZipException if the archive is not supported (e.g. ZIP64)
+     */
+    static Map<String, Integer> readCentralEntries(ByteBuffer zip) throws ZipException {
+        Map<String, Integer> entries = new HashMap<>();
+        readCentralDirectory(zip, entries::put);
+        return entries;
+    }
+
+    private static void readCentralDirectory(ByteBuffer zip, BiConsumer<String, Integer> consumer)
+            throws ZipException {
+        int end = findEnd(zip);
+        byte[] buffer = new byte[256];
+        for (int cen = getCentralDirectoryOffset(zip, end);
+             (cen + CEN_SIZE <= end) && (zip.getInt(cen) == CEN_SIG); cen = nextCentralEntry(zip, cen)) {
+            int nameLength = zip.getShort(cen + 28) & 0xFFFF;
+            if (nameLength > buffer.length) {
+                buffer = new byte[nameLength];
+            }
+            ByteBuffer dup = zip.duplicate();
+            dup.position(cen + CEN_SIZE);
+            dup.get(buffer, 0, nameLength);
+            consumer.accept(new String(buffer, 0, nameLength, StandardCharsets.UTF_8), cen);
+        }
+    }
+
+    /**
+     * Gets the start of the central directory. It is calculated from its
+     * size because prefix data (e.g. a launch script) moves the archive
+     * behind the stored offsets.
+     */
+    private static int getCentralDirectoryOffset(ByteBuffer zip, int end) throws ZipException {
+        long offset = zip.getInt(end + 16) & 0xFFFFFFFFL;
+        if (offset == 0xFFFFFFFFL) {
+            throw new ZipException("ZIP64 archives are not supported");
+        }
+        long size = zip.getInt(end + 12) & 0xFFFFFFFFL;
+        return (int) (end - size);
+    }
+
+    private static int getPrefixLength(ByteBuffer zip) throws ZipException {
+        int end = findEnd(zip);
+        return getCentralDirectoryOffset(zip, end) - zip.getInt(end + 16);
+    }
+
+    private static int nextCentralEntry(ByteBuffer zip, int cen) {
+        return cen + CEN_SIZE + (zip.getShort(cen + 28) & 0xFFFF) + (zip.getShort(cen + 30) & 0xFFFF)
+                + (zip.getShort(cen + 32) & 0xFFFF);
+    }
+
+    private static boolean equals(ByteBuffer zip, int index, byte[] expected) {
+        for (int i = 0; i < expected.length; i++) {
+            if (zip.get(index + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer slice(ByteBuffer zip, int offset, int length) {
+        ByteBuffer dup = zip.duplicate();
+        dup.position(offset);
+        dup.limit(offset + length);
+        return dup.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+
+
+    /**
+     * Reads a {@link ByteBuffer} as stream without copying it.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+    }
+
+}
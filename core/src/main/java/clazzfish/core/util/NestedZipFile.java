@@ -21,7 +21,6 @@ package clazzfish.core.util;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.Arrays;
-import java.util.Enumeration;
 import java.util.logging.Logger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -32,6 +31,11 @@ import java.util.zip.ZipFile;
  * implementation which gives you the name of the file. And it allows
  * you to use nested ZIP files, e.g. ZIP files inside ZIP files.
  * <p>
+ * A nested ZIP file is extracted into a temporary file. If you only need
+ * the names of the entries use {@link NestedArchive} which needs no
+ * temporary files.
+ * </p>
+ * <p>
  * Originally this class was part of the PatternTesting project.
  * </p>
  * 
@@ -105,44 +109,78 @@ public final class NestedZipFile extends ZipFile {
      */
     public NestedZipFile(File file, int mode, Charset charset) throws IOException {
         super(getEmbeddedZipFile(file), mode, charset);
+        if (!file.getPath().equals(getName())) {
+            deleteTmpFile(new File(getName()));
+        }
     }
 
     private static File getEmbeddedZipFile(File file) throws IOException {
         String path = file.getPath();
         if (path.contains("!")) {
             String[] pathes = path.split("!");
-            return getEmbeddedZipFile(new File(pathes[0]), Arrays.copyOfRange(pathes, 1, pathes.length));
+            return getEmbeddedZipFile(new File(pathes[0]), Arrays.copyOfRange(pathes, 1, pathes.length), false);
         }
         return file;
     }
-    
-    private static File getEmbeddedZipFile(File embeddingZip, String[] pathes) throws IOException {
-        File embedded = getEmbbededZipFile(embeddingZip, pathes[0]);
+
+    private static File getEmbeddedZipFile(File embeddingZip, String[] pathes, boolean tmp) throws IOException {
+        File embedded;
+        try {
+            embedded = tmp ? getEmbbededZipFile(embeddingZip, pathes[0])
+                    : getEmbbededZipFileOf(embeddingZip, pathes[0]);
+        } finally {
+            if (tmp) {
+                deleteTmpFile(embeddingZip);
+            }
+        }
         if (pathes.length > 1) {
-            return getEmbeddedZipFile(embedded, Arrays.copyOfRange(pathes, 1, pathes.length));
+            return getEmbeddedZipFile(embedded, Arrays.copyOfRange(pathes, 1, pathes.length), true);
         } else {
             return embedded;
         }
     }
 
+    /**
+     * Since 3.1 the temporary file is deleted as soon as it is opened (or no
+     * longer needed) instead of registering it for deletion at exit. This
+     * works on POSIX systems because an open file can be deleted. Only if
+     * the deletion fails (e.g. on Windows) it is deleted at exit.
+     */
+    private static void deleteTmpFile(File tmpFile) {
+        if (!tmpFile.delete()) {
+            tmpFile.deleteOnExit();
+        }
+    }
+
+    /**
+     * The outer archive is accessed via the shared {@link ArchiveHandle}. So
+     * if the handle is held by the caller (e.g. during the scan of a fat jar)
+     * the outer archive is opened only once for all nested archives.
+     */
+    private static File getEmbbededZipFileOf(File file, String name) throws IOException {
+        try (ArchiveHandle handle = ArchiveHandle.open(file)) {
+            return getEmbbededZipFile(handle.getZipFile(), name);
+        }
+    }
+
     private static File getEmbbededZipFile(File file, String name) throws IOException {
-        String normalizedName = name.substring(1).replace('\\', '/');
         try (ZipFile zipFile = new ZipFile(file)) {
-            Enumeration<? extends ZipEntry> entries = zipFile.entries();
-            while (entries.hasMoreElements()) {
-                ZipEntry entry = entries.nextElement();
-                if (normalizedName.equals(entry.getName())) {
-                    return getEmbeddedZipFile(zipFile, entry);
-                }
-            }
+            return getEmbbededZipFile(zipFile, name);
+        }
+    }
+
+    private static File getEmbbededZipFile(ZipFile zipFile, String name) throws IOException {
+        String normalizedName = name.substring(1).replace('\\', '/');
+        ZipEntry entry = zipFile.getEntry(normalizedName);
+        if ((entry == null) || entry.isDirectory()) {
+            throw new FileNotFoundException("entry '" + name + "' not found in " + zipFile.getName());
         }
-        throw new FileNotFoundException("entry '" + name + "' not found in " + file);
+        return getEmbeddedZipFile(zipFile, entry);
     }
     
     private static File getEmbeddedZipFile(ZipFile zipFile, ZipEntry zipEntry) throws IOException {
         try (InputStream istream = zipFile.getInputStream(zipEntry)) {
-            File tmpZipFile = File.createTempFile(zipEntry.getName(), ".zip");
-            tmpZipFile.deleteOnExit();
+            File tmpZipFile = File.createTempFile("nested", ".zip");
             copy(istream, tmpZipFile);
             log.fine(String.format("File %s created with '%s' from file '%s'.", tmpZipFile, zipEntry, zipFile.getName()));
             return tmpZipFile;
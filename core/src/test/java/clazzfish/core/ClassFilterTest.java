@@ -19,6 +19,11 @@ package clazzfish.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -47,4 +52,70 @@ class ClassFilterTest {
         assertFalse(filter.isIncluded("META-INF.versions.9.org.bouncycastle.util.Strings"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void isIncludedRegex() {
+        ClassFilter regexFilter = new ClassFilter("java\\..*|.*Test|a\\.b\\.C|x[0-9]\\..*");
+        assertFalse(regexFilter.isIncluded("java.lang.Object"));
+        assertFalse(regexFilter.isIncluded("clazzfish.core.ClassFilterTest"));
+        assertFalse(regexFilter.isIncluded("a.b.C"));
+        assertFalse(regexFilter.isIncluded("x1.Y"));
+        assertTrue(regexFilter.isIncluded("javax.sql.DataSource"));
+        assertTrue(regexFilter.isIncluded("a.b.Cd"));
+        assertTrue(regexFilter.isIncluded("xx.Y"));
+    }
+
+    @Test
+    void isIncludedAll() {
+        ClassFilter all = new ClassFilter(".*");
+        assertFalse(all.isIncluded("java.lang.Object"));
+        assertFalse(all.isIncluded(""));
+    }
+
+    @Test
+    void isIncludedGlobs() {
+        ClassFilter globFilter = ClassFilter.of(Arrays.asList("com.example.**", "org.*.Main"),
+                Arrays.asList("**Test", "com.example.internal.**", "com.example.Dead?"));
+        assertTrue(globFilter.isIncluded("com.example.Hello"));
+        assertTrue(globFilter.isIncluded("com.example.sub.Hello"));
+        assertTrue(globFilter.isIncluded("org.app.Main"));
+        assertFalse(globFilter.isIncluded("org.app.sub.Main"));
+        assertFalse(globFilter.isIncluded("com.other.Hello"));
+        assertFalse(globFilter.isIncluded("com.example.HelloTest"));
+        assertFalse(globFilter.isIncluded("com.example.internal.Hello"));
+        assertFalse(globFilter.isIncluded("com.example.Dead1"));
+        assertTrue(globFilter.isIncluded("com.example.Dead12"));
+    }
+
+    @Test
+    void withExclude() {
+        ClassFilter globFilter = ClassFilter.of(Collections.singletonList("com.**"),
+                Collections.singletonList("**Test"));
+        ClassFilter combined = globFilter.withExclude("com\\.example\\..*");
+        assertFalse(combined.isIncluded("com.example.Hello"));
+        assertFalse(combined.isIncluded("com.other.HelloTest"));
+        assertFalse(combined.isIncluded("org.other.Hello"));
+        assertTrue(combined.isIncluded("com.other.Hello"));
+        assertTrue(globFilter.isIncluded("com.example.Hello"));
+    }
+
+    @Test
+    void isIncludedWithoutGlobs() {
+        ClassFilter noFilter = ClassFilter.of(Collections.emptyList(), Collections.emptyList());
+        assertTrue(noFilter.isIncluded("java.lang.Object"));
+    }
+
+    @Test
+    void isIncludedManyNames() {
+        ClassFilter globFilter = ClassFilter.of(Collections.singletonList("com.**"),
+                Arrays.asList("com.example.p1.**", "**.Dead"));
+        List<String> included = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            String name = String.format("com.example.p%d.C%d", i % 100, i);
+            if (globFilter.isIncluded(name)) {
+                included.add(name);
+            }
+        }
+        assertEquals(99_000, included.size());
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link ClasspathIndex}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class ClasspathIndexTest {
+
+    private static final File WORLD_WAR = new File("../monitor/src/test/resources/clazzfish/monitor/util/world.war");
+    private final ClasspathIndex index = new ClasspathIndex();
+
+    @Test
+    void getElementsOfDir() throws IOException {
+        Collection<String> elements = index.getElements("target/classes");
+        assertThat(elements, hasItem(endsWith("Digger.class")));
+        assertThat(index.getElements("target/classes"), sameInstance(elements));
+        assertThat(index.size(), equalTo(1));
+    }
+
+    @Test
+    void getElementsOfNestedArchive() throws IOException {
+        File nested = new File(WORLD_WAR, "!/WEB-INF/lib/jcl-over-slf4j-1.7.21.jar");
+        Collection<String> elements = index.getElements(nested.getPath());
+        assertThat(elements, containsInAnyOrder(Digger.readElementsFromNestedArchive(nested).toArray()));
+    }
+
+    @Test
+    void getEntries() throws IOException {
+        List<ZipEntry> entries = index.getEntries(WORLD_WAR.getPath());
+        assertThat(entries, not(empty()));
+        for (ZipEntry entry : entries) {
+            assertThat(entry.getName(), entry.getSize(), greaterThanOrEqualTo(0L));
+            assertThat(entry.getName(), entry.getCrc(), greaterThanOrEqualTo(0L));
+        }
+    }
+
+    @Test
+    void getEntriesOfDir(@TempDir File dir) throws IOException {
+        Files.writeString(dir.toPath().resolve("hello.txt"), "hello");
+        List<ZipEntry> entries = index.getEntries(dir.getPath());
+        assertThat(entries, hasSize(1));
+        assertThat(entries.get(0).getSize(), equalTo(5L));
+    }
+
+    @Test
+    void getElementsChanged(@TempDir File dir) throws IOException {
+        Files.writeString(dir.toPath().resolve("a.txt"), "a");
+        assertThat(index.getElements(dir.getPath()), hasSize(1));
+        Files.writeString(dir.toPath().resolve("b.txt"), "b");
+        dir.setLastModified(dir.lastModified() + 2000);
+        assertThat(index.getElements(dir.getPath()), hasSize(2));
+    }
+
+    @Test
+    void getElementsNotFound() {
+        assertThrows(IOException.class, () -> index.getElements("target/unknown.jar"));
+        assertThat(index.size(), equalTo(0));
+    }
+
+}
@@ -23,6 +23,9 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -62,6 +65,64 @@ class ConfigTest {
         assertNotNull(pattern);
     }
 
+    @Test
+    void getDiggerParallelism() {
+        Properties props = new Properties();
+        props.setProperty(Config.DIGGER_PARALLELISM, "3");
+        assertEquals(3, Config.of(props).getDiggerParallelism());
+        props.setProperty(Config.DIGGER_PARALLELISM, "many");
+        assertEquals(Runtime.getRuntime().availableProcessors(), Config.of(props).getDiggerParallelism());
+    }
+
+    @Test
+    void getExecutorThreads() {
+        Properties props = new Properties();
+        props.setProperty(Config.EXECUTOR_THREADS, "4");
+        assertEquals(4, Config.of(props).getExecutorThreads());
+        props.setProperty(Config.EXECUTOR_THREADS, "few");
+        assertEquals(2, Config.of(props).getExecutorThreads());
+    }
+
+    @Test
+    void getDumpLockTimeout() {
+        Properties props = new Properties();
+        props.setProperty(Config.DUMP_LOCK_TIMEOUT, "150");
+        assertEquals(Duration.ofMillis(150), Config.of(props).getDumpLockTimeout());
+        props.setProperty(Config.DUMP_LOCK_TIMEOUT, "soon");
+        assertEquals(Duration.ofSeconds(2), Config.of(props).getDumpLockTimeout());
+    }
+
+    @Test
+    void getDumpCompactionThreshold() {
+        Properties props = new Properties();
+        props.setProperty(Config.DUMP_COMPACTION_THRESHOLD, "5");
+        assertEquals(5, Config.of(props).getDumpCompactionThreshold());
+        props.setProperty(Config.DUMP_COMPACTION_THRESHOLD, "-");
+        assertEquals(100, Config.of(props).getDumpCompactionThreshold());
+    }
+
+    @Test
+    void getDumpInterval() {
+        Properties props = new Properties();
+        assertEquals(Duration.ZERO, Config.of(props).getDumpInterval());
+        props.setProperty(Config.DUMP_INTERVAL, "300");
+        assertEquals(Duration.ofMinutes(5), Config.of(props).getDumpInterval());
+        props.setProperty(Config.DUMP_INTERVAL, "PT10M");
+        assertEquals(Duration.ofMinutes(10), Config.of(props).getDumpInterval());
+        props.setProperty(Config.DUMP_INTERVAL, "often");
+        assertEquals(Duration.ZERO, Config.of(props).getDumpInterval());
+    }
+
+    @Test
+    void getGlobIncludes() {
+        Properties props = new Properties();
+        assertTrue(Config.of(props).getGlobIncludes().isEmpty());
+        props.setProperty(Config.GLOB_INCLUDE, "com.example.**, org.*.Main,");
+        assertEquals(Arrays.asList("com.example.**", "org.*.Main"), Config.of(props).getGlobIncludes());
+        props.setProperty(Config.GLOB_EXCLUDE, "**Test");
+        assertEquals(Collections.singletonList("**Test"), Config.of(props).getGlobExcludes());
+    }
+
     @Test
     void ofResource() {
         Config config = Config.of("clazzfish/core/test.properties");
@@ -97,6 +158,7 @@ class ConfigTest {
         Config.loadProperties("/clazzfish/core/test.properties");
         assertTrue(Environment.isPropertyEnabled("my.little.test.property"), "see test.properties");
         unsetSystemProperty("my.little.test.property");
+        unsetSystemProperty(Config.PATTERN_EXCLUDE);
     }
 
     private static void unsetSystemProperty(final String name) {
@@ -19,15 +19,22 @@ package clazzfish.core;
 
 import clazzfish.core.stat.ClazzRecord;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
 import java.lang.instrument.Instrumentation;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItemInArray;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +55,23 @@ class DiggerTest {
         assertFalse(elements.isEmpty());
     }
 
+    @Test
+    void resourceToClass() {
+        assertEquals("java.lang.String", Digger.resourceToClass("/java/lang/String.class"));
+        assertEquals("java.lang.String", Digger.resourceToClass("java\\lang/String.class"));
+        assertEquals("Main", Digger.resourceToClass("Main.class"));
+        assertEquals("", Digger.resourceToClass(".class"));
+        assertEquals("META-INF/MANIFEST.MF", Digger.resourceToClass("META-INF/MANIFEST.MF"));
+        assertNull(Digger.resourceToClass(null));
+    }
+
+    @Test
+    void classToResource() {
+        assertEquals("java/lang/String.class", Digger.classToResource("java.lang.String"));
+        assertEquals("java.lang.String", Digger.resourceToClass(Digger.classToResource("java.lang.String")));
+        assertNull(Digger.classToResource(null));
+    }
+
     @Test
     void testGetClasses() {
         String[] classes = digger.getClasses();
@@ -84,4 +108,100 @@ class DiggerTest {
         assertNotNull(clazzRecords);
     }
 
+    @Test
+    void testParallelScan() {
+        Digger sequential = new DoubledClasspathDigger() {
+            @Override
+            protected int getParallelism() {
+                return 1;
+            }
+        };
+        Digger parallel = new DoubledClasspathDigger() {
+            @Override
+            protected int getParallelism() {
+                return 4;
+            }
+        };
+        assertEquals(sequential.getClassRecords(), parallel.getClassRecords());
+        assertEquals(sequential.getShadedRecords(), parallel.getShadedRecords());
+    }
+
+    @Test
+    void testGetShadedRecordsFirstWins(@TempDir Path tmpDir) throws IOException {
+        String[] classpath = new String[8];
+        for (int i = 0; i < classpath.length; i++) {
+            Path dir = Files.createDirectories(tmpDir.resolve("cp" + i).resolve("x"));
+            Files.createFile(dir.resolve("Same.class"));
+            Files.createFile(dir.resolve("Only" + i + ".class"));
+            classpath[i] = dir.getParent().toString();
+        }
+        Digger parallel = new Digger() {
+            @Override
+            public String[] getClasspath() {
+                return classpath;
+            }
+            @Override
+            protected int getParallelism() {
+                return 4;
+            }
+        };
+        URI first = new File(classpath[0]).toURI();
+        assertThat(parallel.getClassRecords(), hasItem(new ClazzRecord(first, "x.Same")));
+        Set<ClazzRecord> shadedRecords = parallel.getShadedRecords();
+        assertEquals(classpath.length - 1, shadedRecords.size());
+        for (ClazzRecord cr : shadedRecords) {
+            assertEquals("x.Same", cr.classname());
+            assertNotEquals(first, cr.classpath());
+        }
+    }
+
+    @Test
+    void testScanOnDemand() throws InterruptedException {
+        AtomicInteger scans = new AtomicInteger();
+        Digger lazy = new Digger() {
+            @Override
+            public String[] getClasspath() {
+                scans.incrementAndGet();
+                return new String[0];
+            }
+        };
+        Thread.sleep(50);
+        assertEquals(0, scans.get());
+        assertNotNull(lazy.getClassRecords());
+        assertNotNull(lazy.getShadedRecords());
+        assertEquals(1, scans.get());
+    }
+
+    @Test
+    void testPrewarm() {
+        AtomicInteger scans = new AtomicInteger();
+        Digger prewarmed = new Digger() {
+            @Override
+            public String[] getClasspath() {
+                scans.incrementAndGet();
+                return new String[0];
+            }
+        };
+        prewarmed.prewarm();
+        prewarmed.prewarm();
+        assertNotNull(prewarmed.getClassRecords());
+        assertEquals(1, scans.get());
+    }
+
+    /**
+     * This digger sees each element of the classpath twice, so all classes
+     * of the second half are shaded.
+     */
+    private static class DoubledClasspathDigger extends Digger {
+
+        @Override
+        public String[] getClasspath() {
+            String[] classpath = ClasspathInspector.getClasspath();
+            String[] doubled = Arrays.copyOf(classpath, classpath.length * 2);
+            System.arraycopy(classpath, 0, doubled, classpath.length, classpath.length);
+            return doubled;
+        }
+
+    }
+
 }
\ No newline at end of file
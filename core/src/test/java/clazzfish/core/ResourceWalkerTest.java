@@ -18,13 +18,18 @@
 package clazzfish.core;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Collection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 /**
@@ -51,6 +56,38 @@ class ResourceWalkerTest {
         assertThat(resources, hasItem("/logging.properties"));
     }
 
+    @Test
+    void getClassesSequential() throws IOException {
+        Collection<String> parallel = new ResourceWalker(CLASSES_DIR, ".class", 4).getClasses();
+        Collection<String> sequential = new ResourceWalker(CLASSES_DIR, ".class", 1).getClasses();
+        assertThat(parallel, hasItem(getClass().getName()));
+        assertEquals(new HashSet<>(sequential), new HashSet<>(parallel));
+    }
+
+    @Test
+    void walkResources(@TempDir Path tmpDir) throws IOException {
+        for (int i = 0; i < 10; i++) {
+            Path dir = Files.createDirectories(tmpDir.resolve("d" + i).resolve("sub"));
+            Files.writeString(dir.resolve("r" + i + ".xml"), "<xml/>");
+            Files.writeString(dir.resolve("R" + i + ".class"), "");
+        }
+        Set<String> resources = ConcurrentHashMap.newKeySet();
+        new ResourceWalker(tmpDir.toFile(), ".xml", 4).walkResources(resources::add);
+        assertEquals(10, resources.size());
+        String expected = File.separator + "d3" + File.separator + "sub" + File.separator + "r3.xml";
+        assertThat(resources, hasItem(expected));
+    }
+
+    @Test
+    void walkClasses(@TempDir Path tmpDir) throws IOException {
+        Path dir = Files.createDirectories(tmpDir.resolve("a").resolve("b"));
+        Files.writeString(dir.resolve("C.class"), "");
+        Files.writeString(tmpDir.resolve("module-info.class"), "");
+        List<String> classes = new ArrayList<>();
+        new ResourceWalker(tmpDir.toFile()).walkClasses(classes::add);
+        assertEquals(Collections.singletonList("a.b.C"), classes);
+    }
+
     private static Collection<String> getResourcesFrom(ResourceWalker walker) throws IOException {
         Collection<String> resources = walker.getResources();
         assertThat(resources, not(empty()));
@@ -21,10 +21,15 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Unit-Test for {@link clazzfish.core.jmx.ClassDiagnostic}.
@@ -35,6 +40,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 class ClassDiagnosticTest {
 
     private static final Logger log = LoggerFactory.getLogger(ClassDiagnosticTest.class);
+    private static boolean initialized;
     private final clazzfish.core.jmx.ClassDiagnostic classDiagnostic = new ClassDiagnostic();
 
     @Test
@@ -49,6 +55,43 @@ class ClassDiagnosticTest {
         checkClasses(loadedClasses);
     }
 
+    @Test
+    void parseClassnamesHierarchy() {
+        String hierarchy = "java.lang.Object/null\n"
+                + "|--java.lang.Runnable/null (intf)\n"
+                + "|  |--java.util.HashMap$Node/null\r\n"
+                + "|--x.Y$$Lambda$152/0x00007fe3dd119f68/0x00007fe434090950\n"
+                + "\n"
+                + "no class\n"
+                + "|--Unnamed/0x00007fe434090950";
+        List<String> classnames = new ArrayList<>();
+        ClassDiagnostic.parseClassnamesHierarchy(hierarchy, classnames::add);
+        assertEquals(Arrays.asList("java.lang.Object", "java.lang.Runnable", "java.util.HashMap$Node",
+                "x.Y$$Lambda$152", "Unnamed"), classnames);
+    }
+
+    @Test
+    void getLoadedClassnamesFromVmClassHierarchy() {
+        Set<String> classnames = ClassDiagnostic.getLoadedClassnamesFromVmClassHierarchy();
+        assertThat(classnames, hasItem(getClass().getName()));
+        assertThat(classnames, not(hasItem(containsString("$$Lambda$"))));
+    }
+
+    @Test
+    void forNameWithoutInitialization() {
+        Class<?> clazz = ClassDiagnostic.forName(Initialized.class.getName());
+        assertEquals(Initialized.class, clazz);
+        assertFalse(initialized);
+        assertSame(clazz, ClassDiagnostic.forName(Initialized.class.getName()));
+    }
+
+    @Test
+    void forNameUnknown() {
+        assertNull(ClassDiagnostic.forName("nir.wa.Na"));
+        assertNull(ClassDiagnostic.forName("nir.wa.Na"));
+        assertFalse(ClassDiagnostic.isCached("nir.wa.Na"));
+    }
+
     void checkClasses(Class<?>[] loadedClasses) {
         log.info("Checking {} loaded classes...", loadedClasses.length);
         assertContains(loadedClasses, getClass());
@@ -64,4 +107,10 @@ class ClassDiagnosticTest {
         fail("Class '" + expectedClass + "' not in " + Arrays.toString(classes));
     }
 
-}
\ No newline at end of file
+    static final class Initialized {
+        static {
+            initialized = true;
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.spi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BinCodec}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class BinCodecTest {
+
+    private static final List<String> LINES = List.of(
+            "file:/lib/a.jar;java.lang.String;42",
+            "file:/lib/a.jar;java.lang.Object;0",
+            "file:/lib/b.jar;de.test.Äöü;007",
+            "\"SELECT * FROM t\";-1;1.5;;",
+            "",
+            "9223372036854775807;01;12345678901234567");
+
+    @Test
+    void testRoundTrip() throws IOException {
+        assertEquals(LINES, roundTrip(LINES, false));
+    }
+
+    @Test
+    void testRoundTripCompressed() throws IOException {
+        assertEquals(LINES, roundTrip(LINES, true));
+    }
+
+    @Test
+    void testSize() throws IOException {
+        List<String> lines = new ArrayList<>();
+        int csvSize = 0;
+        for (int i = 0; i < 1000; i++) {
+            String line = "file:/lib/classes.jar;de.test.C" + i + ";" + i;
+            lines.add(line);
+            csvSize += line.length() + 1;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinCodec.encode(out, "Classpath;Classname;Count", lines.iterator(), false);
+        assertTrue(out.size() < csvSize / 2, "binary size " + out.size() + " should be smaller than CSV");
+    }
+
+    @Test
+    void testDecodeNoBinary() {
+        byte[] data = "Classpath;Classname;Count\n".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IOException.class, () -> BinCodec.decode(new ByteArrayInputStream(data), line -> {}));
+    }
+
+    @Test
+    void testConvert(@TempDir File tmpDir) throws IOException {
+        File csvFile = new File(tmpDir, "stat.csv");
+        Files.write(csvFile.toPath(), LINES, StandardCharsets.UTF_8);
+        File binFile = new File(tmpDir, "stat.bin");
+        BinCodec.fromCSV(csvFile, binFile, true);
+        assertTrue(BinCodec.isBinary(binFile));
+        assertFalse(BinCodec.isBinary(csvFile));
+        File converted = new File(tmpDir, "converted.csv");
+        BinCodec.toCSV(binFile, converted);
+        assertEquals(LINES, Files.readAllLines(converted.toPath(), StandardCharsets.UTF_8));
+    }
+
+    private static List<String> roundTrip(List<String> lines, boolean compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int n = BinCodec.encode(out, lines.get(0), lines.subList(1, lines.size()).iterator(), compressed);
+        assertEquals(lines.size() - 1, n);
+        List<String> decoded = new ArrayList<>();
+        BinCodec.decode(new ByteArrayInputStream(out.toByteArray()), decoded::add);
+        return decoded;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.spi;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BinXPorter}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class BinXPorterTest {
+
+    @Test
+    void testExportImport(@TempDir File tmpDir) throws IOException {
+        URI uri = URI.create("bin://" + tmpDir.toURI().getPath() + "stat/ClazzStatistic.csv");
+        BinXPorter xPorter = new BinXPorter(uri, true);
+        xPorter.exportCSV(uri, "N;Square", IntStream.range(0, 100).mapToObj(i -> i + ";" + i * i));
+        File binFile = new File(tmpDir, "stat/ClazzStatistic.bin");
+        assertEquals(binFile, BinXPorter.toFile(uri));
+        assertTrue(BinCodec.isBinary(binFile));
+        List<String> lines = xPorter.importCSV();
+        assertEquals(101, lines.size());
+        assertEquals("N;Square", lines.get(0));
+        assertEquals("99;9801", lines.get(100));
+    }
+
+    @Test
+    void testImportCSV(@TempDir File tmpDir) throws IOException {
+        File csvFile = new File(tmpDir, "old.csv");
+        List<String> lines = List.of("Name;Count", "a;1", "b;2");
+        new FileXPorter(csvFile).exportCSV(lines);
+        BinXPorter xPorter = new BinXPorter(csvFile.toURI(), false);
+        List<String> imported = new ArrayList<>();
+        xPorter.importCSV(csvFile.toURI(), imported::add);
+        assertEquals(lines, imported);
+        xPorter.exportCSV(imported);
+        assertTrue(BinCodec.isBinary(new File(tmpDir, "old.bin")));
+        assertEquals(lines, xPorter.importCSV());
+    }
+
+    @Test
+    void testExportLocked(@TempDir File tmpDir) throws Exception {
+        URI uri = new File(tmpDir, "locked.csv").toURI();
+        BinXPorter xPorter = new BinXPorter(uri, false, Duration.ofMillis(50));
+        xPorter.exportCSV(List.of("Name;Count", "a;1"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch exported = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            try (Closeable lock = xPorter.lock(uri)) {
+                locked.countDown();
+                exported.await();
+            } catch (IOException | InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        other.start();
+        locked.await();
+        assertThrows(IOException.class, () -> xPorter.exportCSV(List.of("Name;Count", "b;2")));
+        exported.countDown();
+        other.join();
+        assertEquals(List.of("Name;Count", "a;1"), xPorter.importCSV());
+        assertEquals(List.of("locked.bin"), List.of(Objects.requireNonNull(tmpDir.list())));
+    }
+
+    @Test
+    void testWithURI() {
+        BinXPorter a = new BinXPorter(URI.create("bin:///tmp/a"));
+        assertSame(a, a.withURI(a.getURI()));
+        assertNotEquals(a, a.withURI(URI.create("bin:///tmp/b")));
+    }
+
+}
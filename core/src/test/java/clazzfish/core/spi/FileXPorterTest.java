@@ -19,13 +19,25 @@ package clazzfish.core.spi;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import patterntesting.runtime.junit.ObjectTester;
 
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -60,6 +72,138 @@ class FileXPorterTest {
         assertFalse(cvsLines.isEmpty());
     }
 
+    @Test
+    void exportCSVasStream() throws IOException {
+        File file = new File("target/statistics/test-stream.csv");
+        FileXPorter xPorter = new FileXPorter(file);
+        xPorter.exportCSV(file.toURI(), "N;Square", IntStream.range(0, 1000).mapToObj(i -> i + ";" + i * i));
+        List<String> readLines = FileUtils.readLines(file, StandardCharsets.UTF_8);
+        assertEquals(1001, readLines.size());
+        assertEquals("999;998001", readLines.get(1000));
+    }
+
+    @Test
+    void importCSVwithConsumer() throws IOException {
+        File file = new File("target/statistics/test-consumer.csv");
+        FileXPorter xPorter = new FileXPorter(file);
+        List<String> lines = List.of("a;1", "b;2", "c;3");
+        xPorter.exportCSV("Name;Count", lines);
+        List<String> imported = new ArrayList<>();
+        xPorter.importCSV(file.toURI(), imported::add);
+        assertEquals("Name;Count", imported.get(0));
+        assertEquals(lines, imported.subList(1, imported.size()));
+        assertEquals(xPorter.importCSV(), imported);
+    }
+
+    @Test
+    void importLargeCSV() throws IOException {
+        File file = new File("target/statistics/test-large.csv");
+        FileXPorter xPorter = new FileXPorter(file);
+        int n = 500_000;
+        xPorter.exportCSV(file.toURI(), "Classname;Count",
+                IntStream.range(0, n).mapToObj(i -> "de.test.Ä" + i + ";" + i));
+        int[] count = { 0 };
+        String[] last = { null };
+        xPorter.importCSV(file.toURI(), line -> {
+            count[0]++;
+            last[0] = line;
+        });
+        assertEquals(n + 1, count[0]);
+        assertEquals("de.test.Ä" + (n - 1) + ";" + (n - 1), last[0]);
+    }
+
+    @Test
+    void exportLockedCSV(@TempDir File tmpDir) throws Exception {
+        File file = new File(tmpDir, "locked.csv");
+        FileXPorter xPorter = new FileXPorter(file.toURI(), Duration.ofMillis(50));
+        xPorter.exportCSV("Name;Count", List.of("a;1"));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch exported = new CountDownLatch(1);
+        Thread other = new Thread(() -> {
+            try (Closeable lock = xPorter.lock(file.toURI())) {
+                locked.countDown();
+                exported.await();
+            } catch (IOException | InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        other.start();
+        locked.await();
+        xPorter.exportCSV("Name;Count", List.of("b;2"));
+        exported.countDown();
+        other.join();
+        assertEquals(List.of("Name;Count", "a;1"), FileUtils.readLines(file, StandardCharsets.UTF_8));
+        assertEquals(List.of("Name;Count", "a;1", "b;2"), xPorter.importCSV());
+        assertEquals(2, Objects.requireNonNull(tmpDir.list()).length);
+        try (Closeable lock = xPorter.lock(file.toURI())) {
+            xPorter.exportCSV(xPorter.importCSV());
+        }
+        assertEquals(List.of("Name;Count", "a;1", "b;2"), FileUtils.readLines(file, StandardCharsets.UTF_8));
+        assertEquals(List.of("locked.csv"), List.of(Objects.requireNonNull(tmpDir.list())));
+    }
+
+    @Test
+    void importWithoutSideEffects(@TempDir File tmpDir) {
+        File file = new File(tmpDir, "missing/missing.csv");
+        FileXPorter xPorter = new FileXPorter(file);
+        assertThrows(FileNotFoundException.class, xPorter::importCSV);
+        assertEquals(0, Objects.requireNonNull(tmpDir.list()).length);
+    }
+
+    @Test
+    void exportConcurrentCSV(@TempDir File tmpDir) throws Exception {
+        File file = new File(tmpDir, "concurrent.csv");
+        FileXPorter xPorter = new FileXPorter(file.toURI(), Duration.ofSeconds(10));
+        xPorter.exportCSV("N", List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            futures.add(executor.submit(() -> {
+                try (Closeable lock = xPorter.lock(file.toURI())) {
+                    List<String> lines = xPorter.importCSV();
+                    lines.add(Integer.toString(n));
+                    xPorter.exportCSV(lines);
+                }
+                return n;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        executor.shutdown();
+        assertEquals(51, xPorter.importCSV().size());
+    }
+
+    @Test
+    void defaultAdapters() throws IOException {
+        List<String> exported = new ArrayList<>();
+        CsvXPorter listXPorter = new CsvXPorter() {
+            @Override
+            public URI getURI() {
+                return URI.create("list:/");
+            }
+            @Override
+            public CsvXPorter withURI(URI csvURI) {
+                return this;
+            }
+            @Override
+            public void exportCSV(URI uri, String csvHeadLine, List<String> csvLines) {
+                exported.add(csvHeadLine);
+                exported.addAll(csvLines);
+            }
+            @Override
+            public List<String> importCSV(URI uri) {
+                return exported;
+            }
+        };
+        listXPorter.exportCSV(listXPorter.getURI(), "H", Stream.of("a", "b"));
+        assertEquals(List.of("H", "a", "b"), exported);
+        List<String> imported = new ArrayList<>();
+        listXPorter.importCSV(listXPorter.getURI(), imported::add);
+        assertEquals(exported, imported);
+    }
+
     @Test
     void testEquals() {
         File file = new File("target/statistics/test-equals.csv");
@@ -17,12 +17,16 @@
  */
 package clazzfish.core.stat;
 
+import clazzfish.core.ClassLoading;
 import clazzfish.core.Config;
+import clazzfish.core.Digger;
 import clazzfish.core.jmx.MBeanFinder;
+import clazzfish.core.spi.BinXPorter;
 import clazzfish.core.spi.FileXPorter;
 import clazzfish.monitor.exception.NotFoundException;
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import patterntesting.runtime.junit.CollectionTester;
@@ -32,8 +36,11 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -74,6 +81,35 @@ class ClazzStatisticTest {
         assertEquals(exportURI, statistic.getXPorter().getURI());
     }
 
+    @Test
+    void ofDigger(@TempDir File tmpDir) {
+        FileXPorter xPorter = new FileXPorter(tmpDir.toURI());
+        Digger digger = new Digger();
+        ClazzStatistic statistic = ClazzStatistic.of(xPorter, digger);
+        assertSame(statistic, ClazzStatistic.of(xPorter, digger));
+        assertNotSame(statistic, ClazzStatistic.of(xPorter, new Digger()));
+    }
+
+    @Test
+    void ofClassLoading(@TempDir File tmpDir) {
+        String name = getClass().getName();
+        ClassLoading classLoading = new ClassLoading() {
+            @Override
+            public Class<?>[] getLoadedClasses() {
+                return new Class[] { ClazzStatisticTest.class };
+            }
+            @Override
+            public String[] getLoadedClassnames() {
+                return new String[] { name };
+            }
+        };
+        ClazzStatistic statistic = ClazzStatistic.of(new FileXPorter(tmpDir.toURI()), classLoading);
+        Set<ClazzRecord> loaded = statistic.getStatistics().stream().filter(r -> r.count() > 0)
+                .collect(Collectors.toSet());
+        assertEquals(1, loaded.size());
+        assertEquals(name, loaded.iterator().next().classname());
+    }
+
     @Test
     void getStatistics() {
         Set<ClazzRecord> classes = recorder.getStatistics();
@@ -81,6 +117,14 @@ class ClazzStatisticTest {
         checkClasses(classes, this.getClass().getName(), 1);
     }
 
+    @Test
+    void getAllClasses() {
+        Set<ClazzRecord> classes = recorder.getAllClasses();
+        ClazzRecord added = new ClazzRecord(URI.create("nir://wana"), "smells.like.teen.Spirit", 1);
+        assertTrue(classes.add(added));
+        assertThat(recorder.getAllClasses(), not(hasItem(added)));
+    }
+
     @Test
     void getSummary() {
         String summary = recorder.getSummary();
@@ -96,6 +140,76 @@ class ClazzStatisticTest {
         assertIsExcluded(lines, ";META-INF.");
     }
 
+    @Test
+    void exportDelta(@TempDir File tmpDir) throws IOException {
+        File csvFile = new File(tmpDir, "ClazzStatistic.csv");
+        List<String> loaded = new ArrayList<>(List.of(getClass().getName()));
+        ClazzStatistic statistic = ClazzStatistic.of(new FileXPorter(csvFile.toURI()), new ClassLoading() {
+            @Override
+            public Class<?>[] getLoadedClasses() {
+                return new Class[0];
+            }
+            @Override
+            public String[] getLoadedClassnames() {
+                return loaded.toArray(new String[0]);
+            }
+        });
+        statistic.setDeltaMode(true);
+        statistic.exportCSV();
+        long size = csvFile.length();
+        loaded.add(ClazzTableTest.class.getName());
+        statistic.exportCSV();
+        statistic.exportCSV();
+        assertEquals(size, csvFile.length());
+        String[] segments = tmpDir.list((dir, name) -> name.matches("ClazzStatistic.csv-.*[0-9]{13}"));
+        assertEquals(1, Objects.requireNonNull(segments).length);
+        statistic.compact();
+        List<String> lines = Files.readAllLines(csvFile.toPath());
+        assertIsSorted(lines);
+        assertThat(lines, hasItem(endsWith(";" + getClass().getName() + ";1")));
+        assertThat(lines, hasItem(endsWith(";" + ClazzTableTest.class.getName() + ";1")));
+        assertEquals(0, Objects.requireNonNull(
+                tmpDir.list((dir, n) -> n.matches("ClazzStatistic.csv-.*[0-9]{13}"))).length);
+    }
+
+    @Test
+    void exportDeltaWithoutSegments(@TempDir File tmpDir) throws IOException {
+        URI uri = new File(tmpDir, "ClazzStatistic.bin").toURI();
+        BinXPorter xPorter = new BinXPorter(uri, false);
+        List<String> loaded = new ArrayList<>(List.of(getClass().getName()));
+        ClazzStatistic statistic = ClazzStatistic.of(xPorter, new ClassLoading() {
+            @Override
+            public Class<?>[] getLoadedClasses() {
+                return new Class[0];
+            }
+            @Override
+            public String[] getLoadedClassnames() {
+                return loaded.toArray(new String[0]);
+            }
+        });
+        statistic.setDeltaMode(true);
+        statistic.exportCSV(uri);
+        loaded.add(ClazzTableTest.class.getName());
+        statistic.exportCSV(uri);
+        statistic.exportCSV(uri);
+        List<String> lines = new ArrayList<>();
+        xPorter.importCSV(uri, lines::add);
+        assertThat(lines, hasItem(endsWith(";" + getClass().getName() + ";1")));
+        assertThat(lines, hasItem(endsWith(";" + ClazzTableTest.class.getName() + ";1")));
+    }
+
+    @Test
+    void exportRepeated(@TempDir File tmpDir) throws IOException {
+        File csvFile = new File(tmpDir, "repeated.csv");
+        ClazzStatistic statistic = ClazzStatistic.of(new FileXPorter(csvFile));
+        statistic.exportCSV();
+        statistic.exportCSV();
+        statistic.exportCSV();
+        List<String> lines = Files.readAllLines(csvFile.toPath());
+        assertThat(lines, hasItem(endsWith(";" + getClass().getName() + ";3")));
+        checkClasses(statistic.getStatistics(), getClass().getName(), 1);
+    }
+
     private static void assertIsSorted(List<String> lines) {
         for (int i = 2; i < lines.size(); i++) {
             ClazzRecord r1 = ClazzRecord.fromCSV(lines.get(i-1));
@@ -223,6 +337,8 @@ class ClazzStatisticTest {
         recorder.importCSV(statistic.toString());
         ClazzRecord rec = getClazzRecord(first.classname());
         assertThat(rec.count(), greaterThanOrEqualTo(Math.max(recBefore.count(), first.count())));
+        assertTrue(Files.exists(tmpStatistic));
+        recorder.exportCSV(statistic.toUri());
         assertFalse(Files.exists(tmpStatistic));
     }
 
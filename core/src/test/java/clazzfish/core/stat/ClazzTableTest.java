@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.stat;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ClazzTable}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class ClazzTableTest {
+
+    private static final URI A_JAR = URI.create("file:/a.jar");
+    private static final URI B_JAR = URI.create("file:/b.jar");
+    private final ClazzTable table = ClazzTable.builder()
+            .add(B_JAR, List.of("b.Hello", "a.b.C", "World"))
+            .add(A_JAR, List.of("a.b.c.D", "a.b$x.Y", "a.b.D"))
+            .build();
+
+    @Test
+    void testIterator() {
+        Set<ClazzRecord> expected = new TreeSet<>();
+        for (ClazzRecord record : table) {
+            expected.add(record);
+        }
+        assertEquals(6, table.size());
+        assertEquals(new ArrayList<>(expected), new ArrayList<>(table));
+    }
+
+    @Test
+    void testGetClassname() {
+        assertEquals("World", table.getClassname(0));
+        assertEquals("a.b$x.Y", table.getClassname(1));
+        assertEquals("b.Hello", table.getClassname(table.size() - 1));
+    }
+
+    @Test
+    void testGet() {
+        assertEquals(new ClazzRecord(A_JAR, "a.b.c.D"), table.get("a.b.c.D"));
+        assertEquals(B_JAR, table.get("World").classpath());
+        assertNull(table.get("a.b.c"));
+        assertNull(table.get("a.b.c.D0"));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(table.contains(new ClazzRecord(B_JAR, "a.b.C")));
+        assertFalse(table.contains(new ClazzRecord(A_JAR, "a.b.C")));
+    }
+
+    @Test
+    void testMerge() {
+        table.merge(new ClazzRecord(A_JAR, "a.b.C", 2));
+        table.merge(new ClazzRecord(null, "a.b.C", 3));
+        assertEquals(new ClazzRecord(B_JAR, "a.b.C", 5), table.get("a.b.C"));
+        assertEquals(5, table.get("a.b.C").count());
+    }
+
+    @Test
+    void testCopy() {
+        table.merge(new ClazzRecord(A_JAR, "a.b.C", 2));
+        ClazzTable copy = table.copy();
+        copy.merge(new ClazzRecord(A_JAR, "a.b.C", 3));
+        copy.merge(new ClazzRecord(A_JAR, "x.Y", 1));
+        assertEquals(5, copy.get("a.b.C").count());
+        assertEquals(2, table.get("a.b.C").count());
+        assertEquals(table.size() + 1, copy.size());
+        assertNull(table.get("x.Y"));
+    }
+
+    @Test
+    void testMergeExtra() {
+        ClazzRecord extra = new ClazzRecord(URI.create("nir://wana"), "a.b.E", 1);
+        table.merge(extra);
+        table.merge(extra);
+        assertEquals(7, table.size());
+        assertEquals(2, table.get("a.b.E").count());
+        assertThat(table, contains(new ClazzRecord(B_JAR, "World"), new ClazzRecord(A_JAR, "a.b$x.Y"),
+                new ClazzRecord(B_JAR, "a.b.C"), new ClazzRecord(A_JAR, "a.b.D"), extra,
+                new ClazzRecord(A_JAR, "a.b.c.D"), new ClazzRecord(B_JAR, "b.Hello")));
+        assertEquals(Set.of(A_JAR, B_JAR, extra.classpath()), table.getClasspathes());
+    }
+
+    @Test
+    void testConcurrentMerge() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                table.merge(new ClazzRecord(A_JAR, "a.b.D", 1));
+                table.merge(new ClazzRecord(A_JAR, "x.Y", 1));
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, table.get("a.b.D").count());
+        assertEquals(1000, table.get("x.Y").count());
+    }
+
+    @Test
+    void testIndexOf() {
+        ClazzTable.Builder builder = ClazzTable.builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(A_JAR, "p" + (i % 100) + ".C" + i);
+        }
+        ClazzTable big = builder.build();
+        for (int i = 0; i < 10_000; i++) {
+            String classname = "p" + (i % 100) + ".C" + i;
+            assertEquals(classname, big.getClassname(big.indexOf(classname)));
+        }
+        assertEquals(-1, big.indexOf("p0.C1"));
+    }
+
+}
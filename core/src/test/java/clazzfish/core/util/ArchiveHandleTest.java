@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link ArchiveHandle}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class ArchiveHandleTest {
+
+    private static final File WORLD_WAR = new File("../monitor/src/test/resources/clazzfish/monitor/util/world.war");
+
+    @Test
+    void open() throws IOException {
+        try (ArchiveHandle handle = ArchiveHandle.open(WORLD_WAR)) {
+            try (ArchiveHandle same = ArchiveHandle.open(WORLD_WAR.getAbsoluteFile())) {
+                assertThat(same.getZipFile(), sameInstance(handle.getZipFile()));
+            }
+            assertTrue(ArchiveHandle.isOpen(WORLD_WAR));
+        }
+        assertFalse(ArchiveHandle.isOpen(WORLD_WAR));
+    }
+
+    @Test
+    void closeTwice() {
+        try (ArchiveHandle handle = ArchiveHandle.open(WORLD_WAR)) {
+            ArchiveHandle other = ArchiveHandle.open(WORLD_WAR);
+            other.close();
+            other.close();
+            assertTrue(ArchiveHandle.isOpen(WORLD_WAR));
+            assertThrows(IllegalStateException.class, other::getBuffer);
+        }
+        assertFalse(ArchiveHandle.isOpen(WORLD_WAR));
+    }
+
+    @Test
+    void getCentralEntry() throws IOException {
+        try (ArchiveHandle handle = ArchiveHandle.open(WORLD_WAR)) {
+            assertThat(handle.getCentralEntry("WEB-INF/lib/jcl-over-slf4j-1.7.21.jar"), greaterThan(0));
+            assertThat(handle.getCentralEntry("WEB-INF/lib/unknown.jar"), equalTo(-1));
+        }
+    }
+
+    @Test
+    void getZipFile() throws IOException {
+        try (ArchiveHandle handle = ArchiveHandle.open(WORLD_WAR)) {
+            assertThat(handle.getZipFile().getEntry("WEB-INF/lib/jcl-over-slf4j-1.7.21.jar"), notNullValue());
+            assertThat(handle.getZipFile(), sameInstance(handle.getZipFile()));
+        }
+    }
+
+    @Test
+    void readNestedArchivesWithOpenHandle() throws IOException {
+        try (ArchiveHandle handle = ArchiveHandle.open(WORLD_WAR)) {
+            File nested = new File(WORLD_WAR, "!/WEB-INF/lib/jcl-over-slf4j-1.7.21.jar");
+            assertThat(NestedArchive.readEntryNames(nested), not(empty()));
+            try (NestedZipFile zipFile = new NestedZipFile(nested)) {
+                assertThat(zipFile.size(), greaterThan(0));
+            }
+            assertTrue(ArchiveHandle.isOpen(WORLD_WAR));
+            assertThat(handle.getZipFile().size(), greaterThan(0));
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import clazzfish.core.Config;
+import clazzfish.core.Digger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ArchiveIndex}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class ArchiveIndexTest {
+
+    private static final File WORLD_EAR = new File("../monitor/src/test/resources/clazzfish/monitor/util/world.ear");
+
+    @TempDir
+    private Path tmpDir;
+
+    @Test
+    void testPutAndGet() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        assertNull(index.get(archive));
+        Collection<String> elements = Digger.readElementsFromNestedArchive(archive, index);
+        assertEquals(new ArrayList<>(elements), index.get(archive));
+    }
+
+    @Test
+    void testNestedArchive() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File nested = new File(copyWorldEar(), "!/world.war!/WEB-INF/lib/patterntesting-agent-1.6.3.jar");
+        Collection<String> elements = Digger.readElementsFromNestedArchive(nested, index);
+        assertFalse(elements.isEmpty());
+        assertEquals(new ArrayList<>(elements), index.get(nested));
+    }
+
+    @Test
+    void testOutdated() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        index.put(archive, List.of("a/B.class"));
+        assertNotNull(index.get(archive));
+        assertTrue(archive.setLastModified(archive.lastModified() - 10_000));
+        assertNull(index.get(archive));
+    }
+
+    @Test
+    void testChangedWhileRead() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        ArchiveIndex.Stamp stamp = ArchiveIndex.Stamp.of(archive);
+        assertTrue(archive.setLastModified(archive.lastModified() - 10_000));
+        index.put(archive, stamp, List.of("a/B.class"));
+        assertNull(index.get(archive));
+    }
+
+    @Test
+    void testNoTmpFileAfterFailure() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        index.put(archive, List.of("x".repeat(0x10000)));
+        assertNull(index.get(archive));
+        try (Stream<Path> files = Files.list(tmpDir)) {
+            assertTrue(files.noneMatch(p -> p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void testCommonPrefixes() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        List<String> names = List.of("a/b/C.class", "a/b/D.class", "a/E.class", "", "a/ä/😀.txt", "a/ä/😁.txt");
+        index.put(archive, names);
+        assertEquals(names, index.get(archive));
+    }
+
+    @Test
+    void testClear() throws IOException {
+        ArchiveIndex index = new ArchiveIndex(tmpDir.toFile());
+        File archive = copyWorldEar();
+        index.put(archive, List.of("a/B.class"));
+        index.clear();
+        assertNull(index.get(archive));
+    }
+
+    @Test
+    void testDisabled() throws IOException {
+        Properties props = new Properties();
+        props.setProperty(Config.DUMP_DIR, tmpDir.toString());
+        ArchiveIndex index = ArchiveIndex.of(Config.of(props));
+        assertFalse(index.isEnabled());
+        File archive = copyWorldEar();
+        index.put(archive, List.of("a/B.class"));
+        assertNull(index.get(archive));
+    }
+
+    private File copyWorldEar() throws IOException {
+        Path archive = tmpDir.resolve("world.ear");
+        Files.copy(WORLD_EAR.toPath(), archive, StandardCopyOption.REPLACE_EXISTING);
+        return archive.toFile();
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link ClazzFishExecutor}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class ClazzFishExecutorTest {
+
+    @Test
+    void execute() throws InterruptedException, ExecutionException {
+        ClazzFishExecutor executor = new ClazzFishExecutor(1, false);
+        FutureTask<Thread> task = new FutureTask<>(Thread::currentThread);
+        executor.execute(task);
+        Thread thread = task.get();
+        assertTrue(thread.isDaemon());
+        assertThat(thread.getPriority(), equalTo(Thread.MIN_PRIORITY));
+        assertThat(thread.getName(), startsWith("clazzfish-"));
+    }
+
+    @Test
+    void getQueueSize() throws InterruptedException, ExecutionException {
+        ClazzFishExecutor executor = new ClazzFishExecutor(1, false);
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> await(latch));
+        FutureTask<String> task = new FutureTask<>(() -> "hello");
+        executor.execute(task);
+        assertThat(executor.getQueueSize(), greaterThanOrEqualTo(1));
+        assertThat(ClazzFishExecutor.get(task), equalTo("hello"));
+        latch.countDown();
+        for (int i = 0; (i < 100) && (executor.getCompletedTaskCount() < 2); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getCompletedTaskCount(), equalTo(2L));
+        assertThat(executor.getQueueSize(), equalTo(0));
+        assertThat(executor.getMaxWaitTime(), greaterThan(0.0));
+    }
+
+    @Test
+    void executeWithFullQueue() throws InterruptedException, ExecutionException {
+        ClazzFishExecutor executor = new ClazzFishExecutor(1, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(latch);
+        });
+        await(started);
+        executor.execute(() -> await(latch));
+        FutureTask<String> task = new FutureTask<>(() -> "on demand");
+        executor.execute(task);
+        assertFalse(task.isDone());
+        Thread[] caller = { null };
+        executor.execute(() -> caller[0] = Thread.currentThread());
+        assertThat(caller[0], sameInstance(Thread.currentThread()));
+        assertThat(executor.getRejectedTaskCount(), equalTo(2L));
+        latch.countDown();
+        assertThat(ClazzFishExecutor.get(task), equalTo("on demand"));
+    }
+
+    @Test
+    void getForkJoinPool() {
+        ClazzFishExecutor executor = new ClazzFishExecutor(2, false);
+        ForkJoinPool pool = executor.getForkJoinPool();
+        assertThat(pool.getParallelism(), equalTo(2));
+        assertThat(executor.getForkJoinPool(), sameInstance(pool));
+        assertTrue(pool.submit(() -> Thread.currentThread().isDaemon()).join());
+    }
+
+    @Test
+    void executeVirtual() throws InterruptedException, ExecutionException {
+        ClazzFishExecutor executor = new ClazzFishExecutor(1, true);
+        FutureTask<String> task = new FutureTask<>(() -> "world");
+        executor.execute(task);
+        assertThat(task.get(), equalTo("world"));
+        assertThat(executor.toString(), containsString("1 "));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.core.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link NestedArchive}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class NestedArchiveTest {
+
+    private static final File WORLD_WAR = new File("../monitor/src/test/resources/clazzfish/monitor/util/world.war");
+    private static final File WORLD_EAR = new File("../monitor/src/test/resources/clazzfish/monitor/util/world.ear");
+
+    @Test
+    void readEntryNames() throws IOException {
+        checkEntryNames(WORLD_WAR);
+    }
+
+    @Test
+    void readEntryNamesNested() throws IOException {
+        checkEntryNames(new File(WORLD_WAR, "!/WEB-INF/lib/jcl-over-slf4j-1.7.21.jar"));
+    }
+
+    @Test
+    void readEntryNamesDoubleNested() throws IOException {
+        checkEntryNames(new File(WORLD_EAR, "!/world.war!/WEB-INF/lib/patterntesting-agent-1.6.3.jar"));
+    }
+
+    @Test
+    void readEntryNamesStored(@TempDir File tmpDir) throws IOException {
+        File outer = new File(tmpDir, "outer.jar");
+        byte[] inner = createZip(ZipEntry.DEFLATED, "a/B.class", "a/C.class");
+        try (OutputStream ostream = Files.newOutputStream(outer.toPath())) {
+            ostream.write("#!/bin/sh\nexit 0\n".getBytes());
+            ostream.write(createZip(ZipEntry.STORED, inner, "lib/inner.jar"));
+        }
+        List<String> names = NestedArchive.readEntryNames(new File(outer, "!/lib/inner.jar"));
+        assertThat(names, contains("a/B.class", "a/C.class"));
+    }
+
+    @Test
+    void readEntryNamesNotFound() {
+        File unknown = new File(WORLD_WAR, "!/WEB-INF/lib/unknown.jar");
+        assertThrows(FileNotFoundException.class, () -> NestedArchive.readEntryNames(unknown));
+    }
+
+    private static void checkEntryNames(File archive) throws IOException {
+        List<String> expected = new ArrayList<>();
+        try (ZipFile zipFile = new NestedZipFile(archive)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                expected.add(entries.nextElement().getName());
+            }
+        }
+        List<String> names = NestedArchive.readEntryNames(archive);
+        assertThat(names, not(empty()));
+        assertThat(names, containsInAnyOrder(expected.toArray()));
+    }
+
+    private static byte[] createZip(int method, String... names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(bytes)) {
+            zipStream.setMethod(method);
+            for (String name : names) {
+                zipStream.putNextEntry(new ZipEntry(name));
+                zipStream.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] createZip(int method, byte[] content, String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zipStream = new ZipOutputStream(bytes)) {
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(method);
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setCrc(crc.getValue());
+            zipStream.putNextEntry(entry);
+            zipStream.write(content);
+            zipStream.closeEntry();
+        }
+        return bytes.toByteArray();
+    }
+
+}
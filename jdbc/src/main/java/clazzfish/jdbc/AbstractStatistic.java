@@ -25,6 +25,7 @@ import clazzfish.jdbc.monitor.ProfileMonitor;
 import clazzfish.jdbc.monitor.ProfileMonitorFactory;
 import clazzfish.jdbc.monitor.SimpleProfileMonitor;
 import clazzfish.jdbc.monitor.SimpleProfileMonitorFactory;
+import clazzfish.jdbc.monitor.TimeWindow;
 import clazzfish.monitor.AbstractMonitor;
 import clazzfish.monitor.io.ExtendedFile;
 import org.apache.commons.io.FileUtils;
@@ -34,6 +35,7 @@ import org.slf4j.LoggerFactory;
 import javax.management.openmbean.*;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 
 /**
@@ -48,6 +50,9 @@ import java.util.*;
 public abstract class AbstractStatistic extends AbstractMonitor implements AbstractStatisticMBean {
 
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractStatistic.class);
+	private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+	private static final Duration FIVE_MINUTES = Duration.ofMinutes(5);
+	private static final Duration ONE_HOUR = Duration.ofHours(1);
 
 	private final ProfileMonitorFactory factory;
 
@@ -252,7 +257,7 @@ public abstract class AbstractStatistic extends AbstractMonitor implements Abstr
 		double maxValue = 0.0;
 		for (ProfileMonitor monitor : monitors) {
 			double value = monitor.getAvg();
-			if (!Double.isNaN(value) && (value > maxValue)) {
+			if (value > maxValue) {
 				maxValue = value;
 				max = monitor;
 			}
@@ -340,8 +345,134 @@ public abstract class AbstractStatistic extends AbstractMonitor implements Abstr
 		return getMaxMaxMonitor().toShortString();
 	}
 
+	private ProfileMonitor getMaxAvgMonitor(final Duration window) {
+		ProfileMonitor max = new SimpleProfileMonitor();
+		double maxValue = 0.0;
+		for (ProfileMonitor monitor : getMonitors()) {
+			double value = monitor.getSummary(window).getAvg();
+			if (value > maxValue) {
+				maxValue = value;
+				max = monitor;
+			}
+		}
+		return max;
+	}
+
+	private double getMaxAvg(final Duration window) {
+		return getMaxAvgMonitor(window).getSummary(window).getAvg();
+	}
+
+	private double getMaxMax(final Duration window) {
+		double max = 0.0;
+		for (ProfileMonitor monitor : getMonitors()) {
+			max = Math.max(max, monitor.getSummary(window).getMax());
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the max avg of the last minute.
+	 *
+	 * @return the max avg of the last minute
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxAvg1m() {
+		return getMaxAvg(ONE_MINUTE);
+	}
+
+	/**
+	 * Gets the label with the max avg of the last minute.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Override
+	public String getMaxAvg1mLabel() {
+		return getMaxAvgMonitor(ONE_MINUTE).getLabel();
+	}
+
 	/**
-	 * Gets the statistics.
+	 * Gets the max avg of the last 5 minutes.
+	 *
+	 * @return the max avg of the last 5 minutes
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxAvg5m() {
+		return getMaxAvg(FIVE_MINUTES);
+	}
+
+	/**
+	 * Gets the label with the max avg of the last 5 minutes.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Override
+	public String getMaxAvg5mLabel() {
+		return getMaxAvgMonitor(FIVE_MINUTES).getLabel();
+	}
+
+	/**
+	 * Gets the max avg of the last hour.
+	 *
+	 * @return the max avg of the last hour
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxAvg1h() {
+		return getMaxAvg(ONE_HOUR);
+	}
+
+	/**
+	 * Gets the label with the max avg of the last hour.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Override
+	public String getMaxAvg1hLabel() {
+		return getMaxAvgMonitor(ONE_HOUR).getLabel();
+	}
+
+	/**
+	 * Gets the max time of the last minute.
+	 *
+	 * @return the max time of the last minute
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxMax1m() {
+		return getMaxMax(ONE_MINUTE);
+	}
+
+	/**
+	 * Gets the max time of the last 5 minutes.
+	 *
+	 * @return the max time of the last 5 minutes
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxMax5m() {
+		return getMaxMax(FIVE_MINUTES);
+	}
+
+	/**
+	 * Gets the max time of the last hour.
+	 *
+	 * @return the max time of the last hour
+	 * @since 3.1
+	 */
+	@Override
+	public double getMaxMax1h() {
+		return getMaxMax(ONE_HOUR);
+	}
+
+	/**
+	 * Gets the statistics. Beside the values since start (or last reset)
+	 * the hits, avg and max of the last minute, last 5 minutes and last
+	 * hour are part of the statistics.
 	 *
 	 * @return the statistics
 	 */
@@ -349,11 +480,18 @@ public abstract class AbstractStatistic extends AbstractMonitor implements Abstr
 	@SuppressWarnings("rawtypes")
 	public TabularData getStatistics() {
 		try {
-			String[] itemNames = { "Label", "Units", "Hits", "Avg", "Total", "Min", "Max" };
+			String[] itemNames = { "Label", "Units", "Hits", "Avg", "Total", "Min", "Max",
+					"Hits1m", "Avg1m", "Max1m", "Hits5m", "Avg5m", "Max5m", "Hits1h", "Avg1h", "Max1h" };
 			String[] itemDescriptions = { "method name", "time unit (e.g. ms)", "number of hits", "average time",
-					"total time", "minimal time", "maximal time" };
+					"total time", "minimal time", "maximal time",
+					"hits of last minute", "average time of last minute", "maximal time of last minute",
+					"hits of last 5 minutes", "average time of last 5 minutes", "maximal time of last 5 minutes",
+					"hits of last hour", "average time of last hour", "maximal time of last hour" };
 			OpenType[] itemTypes = { SimpleType.STRING, SimpleType.STRING, SimpleType.INTEGER, SimpleType.DOUBLE,
-					SimpleType.DOUBLE, SimpleType.DOUBLE, SimpleType.DOUBLE };
+					SimpleType.DOUBLE, SimpleType.DOUBLE, SimpleType.DOUBLE,
+					SimpleType.INTEGER, SimpleType.DOUBLE, SimpleType.DOUBLE,
+					SimpleType.INTEGER, SimpleType.DOUBLE, SimpleType.DOUBLE,
+					SimpleType.INTEGER, SimpleType.DOUBLE, SimpleType.DOUBLE };
 			CompositeType rowType = new CompositeType("propertyType", "property entry", itemNames, itemDescriptions,
 					itemTypes);
 			TabularDataSupport data = MBeanFinder.createTabularDataSupport(rowType, itemNames);
@@ -367,6 +505,9 @@ public abstract class AbstractStatistic extends AbstractMonitor implements Abstr
 				map.put("Total", monitor.getTotal());
 				map.put("Min", monitor.getMin());
 				map.put("Max", monitor.getMax());
+				putSummary(map, "1m", monitor.getSummary(ONE_MINUTE));
+				putSummary(map, "5m", monitor.getSummary(FIVE_MINUTES));
+				putSummary(map, "1h", monitor.getSummary(ONE_HOUR));
 				CompositeDataSupport compData = new CompositeDataSupport(rowType, map);
 				data.put(compData);
 			}
@@ -377,6 +518,12 @@ public abstract class AbstractStatistic extends AbstractMonitor implements Abstr
 		}
 	}
 
+	private static void putSummary(Map<String, Object> map, String suffix, TimeWindow.Summary summary) {
+		map.put("Hits" + suffix, summary.getHits());
+		map.put("Avg" + suffix, summary.getAvg());
+		map.put("Max" + suffix, summary.getMax());
+	}
+
 	/**
 	 * Log statistic.
 	 */
@@ -133,6 +133,93 @@ public interface AbstractStatisticMBean {
 	@Description("statistic of the method with the maximal time of a single run")
 	String getMaxMaxStatistic();
 
+	/**
+	 * Gets the max avg of the last minute.
+	 *
+	 * @return the max avg of the last minute
+	 * @since 3.1
+	 */
+	@Description("maximal average time of the last minute")
+	@Unit("milliseconds")
+	double getMaxAvg1m();
+
+	/**
+	 * Gets the label with the max avg of the last minute.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Description("the name of the method with the maximal average time of the last minute")
+	String getMaxAvg1mLabel();
+
+	/**
+	 * Gets the max avg of the last 5 minutes.
+	 *
+	 * @return the max avg of the last 5 minutes
+	 * @since 3.1
+	 */
+	@Description("maximal average time of the last 5 minutes")
+	@Unit("milliseconds")
+	double getMaxAvg5m();
+
+	/**
+	 * Gets the label with the max avg of the last 5 minutes.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Description("the name of the method with the maximal average time of the last 5 minutes")
+	String getMaxAvg5mLabel();
+
+	/**
+	 * Gets the max avg of the last hour.
+	 *
+	 * @return the max avg of the last hour
+	 * @since 3.1
+	 */
+	@Description("maximal average time of the last hour")
+	@Unit("milliseconds")
+	double getMaxAvg1h();
+
+	/**
+	 * Gets the label with the max avg of the last hour.
+	 *
+	 * @return the label
+	 * @since 3.1
+	 */
+	@Description("the name of the method with the maximal average time of the last hour")
+	String getMaxAvg1hLabel();
+
+	/**
+	 * Gets the max time of the last minute.
+	 *
+	 * @return the max time of the last minute
+	 * @since 3.1
+	 */
+	@Description("maximal time of a method in the last minute")
+	@Unit("milliseconds")
+	double getMaxMax1m();
+
+	/**
+	 * Gets the max time of the last 5 minutes.
+	 *
+	 * @return the max time of the last 5 minutes
+	 * @since 3.1
+	 */
+	@Description("maximal time of a method in the last 5 minutes")
+	@Unit("milliseconds")
+	double getMaxMax5m();
+
+	/**
+	 * Gets the max time of the last hour.
+	 *
+	 * @return the max time of the last hour
+	 * @since 3.1
+	 */
+	@Description("maximal time of a method in the last hour")
+	@Unit("milliseconds")
+	double getMaxMax1h();
+
 	/**
 	 * Sets the maximal size of statistic entries.
 	 *
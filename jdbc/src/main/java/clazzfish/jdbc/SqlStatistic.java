@@ -31,6 +31,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
 import java.util.List;
@@ -149,10 +150,12 @@ public class SqlStatistic extends AbstractStatistic implements SqlStatisticMBean
      */
     @Override
     public URI exportCSV() throws IOException {
-		importCSV(xPorter.getURI());
-        log.info("Exporting SQL statistic with '{}'...", xPorter);
-        xPorter.exportCSV(getCsvLines());
-        return xPorter.getURI();
+		try (Closeable lock = xPorter.lock(xPorter.getURI())) {
+			importCSV(xPorter.getURI());
+			log.info("Exporting SQL statistic with '{}'...", xPorter);
+			xPorter.exportCSV(getCsvLines());
+		}
+		return xPorter.getURI();
     }
 
 	@Override
@@ -1,5 +1,6 @@
 package clazzfish.jdbc.monitor;
 
+import java.time.Duration;
 import java.util.Date;
 
 /**
@@ -96,6 +97,19 @@ public interface ProfileMonitor extends Comparable<ProfileMonitor> {
 	 */
 	double getAvg();
 
+	/**
+	 * Gets the hits, total, avg and max of the given time window (e.g. the
+	 * last 5 minutes). In contrast to {@link #getHits()} or {@link #getAvg()}
+	 * older measurements are not part of the result.
+	 *
+	 * @param window e.g. 5 minutes (max. 1 hour)
+	 * @return the summary of the given time window (empty by default)
+	 * @since 3.1
+	 */
+	default TimeWindow.Summary getSummary(Duration window) {
+		return TimeWindow.Summary.EMPTY;
+	}
+
 	/**
 	 * To short string.
 	 *
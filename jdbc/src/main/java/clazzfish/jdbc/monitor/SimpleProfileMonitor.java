@@ -20,6 +20,7 @@ package clazzfish.jdbc.monitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +50,8 @@ public final class SimpleProfileMonitor extends AbstractProfileMonitor {
 	private int hits;
 	private final Date firstAccess = new Date();
 	private Date lastAccess = new Date();
+	/** measurements of the last hour (created with the first hit) */
+	private volatile TimeWindow timeWindow;
 
 	/**
 	 * Instantiates a new simple profile monitor.
@@ -82,6 +85,7 @@ public final class SimpleProfileMonitor extends AbstractProfileMonitor {
 		this.hits = 0;
 		this.parent = null;
 		this.childs.clear();
+		this.timeWindow = null;
 	}
 
 	/**
@@ -210,11 +214,23 @@ public final class SimpleProfileMonitor extends AbstractProfileMonitor {
 	 */
 	@Override
 	public void add(final double value) {
+		this.add(value, true);
+	}
+
+	/**
+	 * Adds the given value. Only live measurements are recorded in the
+	 * {@link TimeWindow} - imported values (see {@link #readFromCsv(String)})
+	 * belong to the past and are not part of it.
+	 *
+	 * @param value the measured time
+	 * @param live  false for imported values
+	 */
+	private void add(final double value, final boolean live) {
 		this.lastValue = value;
 		this.total += value;
 		this.hits++;
 		if (this.parent != null) {
-			this.parent.add(value);
+			this.parent.add(value, live);
 		}
 		if (value < this.min) {
 			this.min = value;
@@ -222,6 +238,49 @@ public final class SimpleProfileMonitor extends AbstractProfileMonitor {
 		if (value > this.max) {
 			this.max = value;
 		}
+		if (live && isWindowed()) {
+			getTimeWindow().add(value);
+		}
+	}
+
+	/**
+	 * Only the root monitor and the monitors registered under it keep a
+	 * {@link TimeWindow}. The short-living monitors created for a single
+	 * measurement (see {@link SimpleProfileMonitorFactory#getMonitor(String)})
+	 * pass the value to their parent and need none.
+	 *
+	 * @return true if a time window is recorded
+	 */
+	private boolean isWindowed() {
+		return (this.parent == null) || (this.parent.parent == null);
+	}
+
+	private TimeWindow getTimeWindow() {
+		TimeWindow window = this.timeWindow;
+		if (window == null) {
+			synchronized (this) {
+				window = this.timeWindow;
+				if (window == null) {
+					window = new TimeWindow();
+					this.timeWindow = window;
+				}
+			}
+		}
+		return window;
+	}
+
+	/**
+	 * Gets the summary of the given time window.
+	 *
+	 * @param window e.g. 5 minutes (max. 1 hour)
+	 * @return the summary of the given time window
+	 * @see ProfileMonitor#getSummary(Duration)
+	 * @since 3.1
+	 */
+	@Override
+	public TimeWindow.Summary getSummary(final Duration window) {
+		TimeWindow tw = this.timeWindow;
+		return (tw == null) ? TimeWindow.Summary.EMPTY : tw.getSummary(window);
 	}
 
 	/**
@@ -367,11 +426,11 @@ public final class SimpleProfileMonitor extends AbstractProfileMonitor {
 			double csvAvg = Double.parseDouble(values[3]);
 			double csvMax = Double.parseDouble(values[5]);
 			double csvMin = Double.parseDouble(values[6]);
-			add(csvMin);
+			add(csvMin, false);
 			if (csvHits > 1) {
-				add(csvMax);
+				add(csvMax, false);
 				for (int i = 2; i < csvHits; i++) {
-					add(csvAvg);
+					add(csvAvg, false);
 				}
 			}
 			log.debug("Line '{}' was imported.", line);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.jdbc.monitor;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * The class TimeWindow is a ring of per-minute buckets. It allows you to ask
+ * for the hits, total and maximal time of the last minute(s) without the
+ * history since start of the application.
+ * <p>
+ * There is no timer which rotates the buckets. A bucket is replaced (via
+ * compare-and-set) by the next call of {@link #add(double)} which falls into
+ * a new interval. Old buckets are ignored when reading. So monitors which are
+ * not used are never touched.
+ * </p>
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public final class TimeWindow {
+
+	/** Length of a single bucket (1 minute). */
+	public static final Duration BUCKET = Duration.ofMinutes(1);
+	/** The maximal length of a time window (1 hour). */
+	public static final Duration MAX = Duration.ofHours(1);
+
+	private final long bucketMillis;
+	private final LongSupplier clock;
+	private final AtomicReferenceArray<Bucket> buckets;
+
+	/**
+	 * Instantiates a new time window with 60 buckets of one minute.
+	 */
+	public TimeWindow() {
+		this(BUCKET, MAX, System::currentTimeMillis);
+	}
+
+	/**
+	 * Instantiates a new time window. This constructor is intended for
+	 * testing where you want to control the clock.
+	 *
+	 * @param bucket length of a single bucket
+	 * @param max    the maximal length of the time window
+	 * @param clock  clock which returns the time in milliseconds
+	 */
+	TimeWindow(Duration bucket, Duration max, LongSupplier clock) {
+		this.bucketMillis = bucket.toMillis();
+		this.clock = clock;
+		this.buckets = new AtomicReferenceArray<>((int) (max.toMillis() / bucketMillis));
+	}
+
+	/**
+	 * Adds the measured value to the actual bucket.
+	 *
+	 * @param value the measured time
+	 */
+	public void add(final double value) {
+		getBucket(clock.getAsLong() / bucketMillis).add(value);
+	}
+
+	private Bucket getBucket(long epoch) {
+		int i = (int) (epoch % buckets.length());
+		Bucket bucket = buckets.get(i);
+		while ((bucket == null) || (bucket.epoch < epoch)) {
+			Bucket next = new Bucket(epoch);
+			if (buckets.compareAndSet(i, bucket, next)) {
+				return next;
+			}
+			bucket = buckets.get(i);
+		}
+		return bucket;
+	}
+
+	/**
+	 * Sums up the buckets of the given time window. The actual (incomplete)
+	 * bucket is part of the window, i.e. a window of 5 minutes covers the
+	 * actual minute and the 4 minutes before.
+	 *
+	 * @param window e.g. 5 minutes (will be limited to {@link #MAX})
+	 * @return the summary of the given time window
+	 */
+	public Summary getSummary(Duration window) {
+		long epoch = clock.getAsLong() / bucketMillis;
+		long n = Math.min(buckets.length(), Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis));
+		long oldest = epoch - n + 1;
+		long hits = 0;
+		double total = 0.0;
+		double max = 0.0;
+		for (int i = 0; i < buckets.length(); i++) {
+			Bucket bucket = buckets.get(i);
+			if ((bucket != null) && (bucket.epoch >= oldest) && (bucket.epoch <= epoch)) {
+				hits += bucket.hits.sum();
+				total += bucket.total.sum();
+				max = Math.max(max, bucket.max.get());
+			}
+		}
+		return new Summary((int) hits, total, max);
+	}
+
+	/**
+	 * Drops all buckets.
+	 */
+	public void reset() {
+		for (int i = 0; i < buckets.length(); i++) {
+			buckets.set(i, null);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " - " + getSummary(MAX).toShortString();
+	}
+
+
+
+	private static final class Bucket {
+
+		private final long epoch;
+		private final LongAdder hits = new LongAdder();
+		private final DoubleAdder total = new DoubleAdder();
+		private final DoubleAccumulator max = new DoubleAccumulator(Math::max, 0.0);
+
+		private Bucket(long epoch) {
+			this.epoch = epoch;
+		}
+
+		private void add(double value) {
+			hits.increment();
+			total.add(value);
+			max.accumulate(value);
+		}
+
+	}
+
+	/**
+	 * The Summary contains the summed values of a time window.
+	 */
+	public static final class Summary {
+
+		/** An empty summary without any hits. */
+		public static final Summary EMPTY = new Summary(0, 0.0, 0.0);
+
+		private final int hits;
+		private final double total;
+		private final double max;
+
+		private Summary(int hits, double total, double max) {
+			this.hits = hits;
+			this.total = total;
+			this.max = max;
+		}
+
+		/**
+		 * Gets the hits.
+		 *
+		 * @return the hits
+		 */
+		public int getHits() {
+			return hits;
+		}
+
+		/**
+		 * Gets the total.
+		 *
+		 * @return the total time in ms
+		 */
+		public double getTotal() {
+			return total;
+		}
+
+		/**
+		 * Gets the avg.
+		 *
+		 * @return the avg in ms (or 0 if there were no hits)
+		 */
+		public double getAvg() {
+			return (hits == 0) ? 0.0 : total / hits;
+		}
+
+		/**
+		 * Gets the max.
+		 *
+		 * @return the max in ms
+		 */
+		public double getMax() {
+			return max;
+		}
+
+		/**
+		 * To short string.
+		 *
+		 * @return the string
+		 */
+		public String toShortString() {
+			return "total: " + this.total + " ms / avg: " + this.getAvg() + " ms / hits: " + this.hits;
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + " - " + toShortString();
+		}
+
+	}
+
+}
@@ -111,6 +111,16 @@ public class SqlStatisticTest {
         assertThat(statistics.size(), lessThan(2));
     }
 
+    @Test
+    public void testGetStatisticsOfLastMinute() {
+        ProfileMonitor mon = SqlStatistic.start(sqls[1]);
+        mon.stop();
+        TabularData statistics = instance.getStatistics();
+        assertThat(statistics.getTabularType().getRowType().keySet(), hasItems("Hits1m", "Avg5m", "Max1h"));
+        assertThat(instance.getMaxMax1h(), greaterThanOrEqualTo(instance.getMaxMax1m()));
+        assertNotNull(instance.getMaxAvg1mLabel());
+    }
+
     /**
      * The name of the class should be part of the toString implementation.
      */
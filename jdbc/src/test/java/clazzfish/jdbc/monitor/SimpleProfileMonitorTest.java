@@ -22,6 +22,7 @@ package clazzfish.jdbc.monitor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentSkipListSet;
@@ -166,4 +167,19 @@ public final class SimpleProfileMonitorTest extends AbstractProfileMonitorTest {
         assertEquals(0.25, monitor.getMin());
     }
 
+    /**
+     * Imported values belong to the past and should not appear in the time
+     * window.
+     */
+    @Test
+    public void testReadFromCsvIsNotWindowed() {
+        String line = "\"SELECT * FROM accounts\"; ms; 1.24; 0.62; 2; 0.99; 0.25";
+        SimpleProfileMonitor monitor = new SimpleProfileMonitor("SELECT * FROM accounts");
+        monitor.readFromCsv(line);
+        monitor.add(0.5);
+        assertEquals(3, monitor.getHits());
+        assertEquals(1, monitor.getSummary(Duration.ofMinutes(1)).getHits());
+        assertEquals(0.5, monitor.getSummary(Duration.ofMinutes(1)).getMax());
+    }
+
 }
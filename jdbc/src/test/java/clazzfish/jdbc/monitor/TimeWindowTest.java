@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.jdbc.monitor;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link TimeWindow}.
+ *
+ * @author oboehm
+ * @since 19.10.26
+ */
+class TimeWindowTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TimeWindow window = new TimeWindow(TimeWindow.BUCKET, TimeWindow.MAX, now::get);
+
+    @Test
+    void testGetSummary() {
+        window.add(1.0);
+        window.add(3.0);
+        TimeWindow.Summary summary = window.getSummary(Duration.ofMinutes(1));
+        assertEquals(2, summary.getHits());
+        assertEquals(4.0, summary.getTotal(), 0.001);
+        assertEquals(2.0, summary.getAvg(), 0.001);
+        assertEquals(3.0, summary.getMax(), 0.001);
+    }
+
+    @Test
+    void testOldBucketsAreIgnored() {
+        window.add(10.0);
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        window.add(1.0);
+        assertEquals(1, window.getSummary(Duration.ofMinutes(1)).getHits());
+        assertEquals(1.0, window.getSummary(Duration.ofMinutes(1)).getMax(), 0.001);
+        assertEquals(2, window.getSummary(Duration.ofMinutes(5)).getHits());
+        assertEquals(10.0, window.getSummary(Duration.ofMinutes(5)).getMax(), 0.001);
+    }
+
+    @Test
+    void testRotation() {
+        window.add(5.0);
+        now.addAndGet(TimeWindow.MAX.toMillis());
+        window.add(1.0);
+        TimeWindow.Summary summary = window.getSummary(TimeWindow.MAX);
+        assertEquals(1, summary.getHits());
+        assertEquals(1.0, summary.getMax(), 0.001);
+    }
+
+    @Test
+    void testEmptyWindow() {
+        window.add(5.0);
+        now.addAndGet(TimeWindow.MAX.toMillis() * 2);
+        TimeWindow.Summary summary = window.getSummary(TimeWindow.MAX);
+        assertEquals(0, summary.getHits());
+        assertEquals(0.0, summary.getAvg(), 0.001);
+    }
+
+    @Test
+    void testReset() {
+        window.add(5.0);
+        window.reset();
+        assertEquals(0, window.getSummary(TimeWindow.MAX).getHits());
+    }
+
+}
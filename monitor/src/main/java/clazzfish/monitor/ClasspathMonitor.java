@@ -23,6 +23,7 @@ import clazzfish.monitor.internal.ClasspathDigger;
 import clazzfish.monitor.internal.DoubletDigger;
 import clazzfish.monitor.io.ExtendedFile;
 import clazzfish.core.jmx.MBeanFinder;
+import clazzfish.core.util.ClazzFishExecutor;
 import clazzfish.monitor.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,7 +79,6 @@ import static clazzfish.core.Config.NULL_URI;
 public class ClasspathMonitor extends AbstractMonitor implements ClasspathMonitorMBean {
 
 	private static final Logger LOG = LoggerFactory.getLogger(ClasspathMonitor.class);
-	private static final Executor EXECUTOR = Executors.newCachedThreadPool();
 	private static final ClasspathMonitor INSTANCE;
 	/** This array is used to call the corresponding getter method. */
 	private static final String[] DUMP_GETTERS = { "BootClasspath", "Classpath", "ClasspathClasses", "DoubletClasspath",
@@ -120,13 +120,13 @@ public class ClasspathMonitor extends AbstractMonitor implements ClasspathMonito
 
 	private FutureTask<String[]> getFutureCasspathClasses() {
 		FutureTask<String[]> classes = new FutureTask<>(this::getClasspathClassArray);
-		EXECUTOR.execute(classes);
+		ClazzFishExecutor.DEFAULT.execute(classes);
 		return classes;
 	}
 
 	private FutureTask<Set<String>> getFutureUnusedClasses() {
 		FutureTask<Set<String>> classes = new FutureTask<>(this::getClasspathClassSet);
-		EXECUTOR.execute(classes);
+		ClazzFishExecutor.DEFAULT.execute(classes);
 		return classes;
 	}
 
@@ -731,7 +731,7 @@ public class ClasspathMonitor extends AbstractMonitor implements ClasspathMonito
 
 	private Set<String> getUnusedClassSet() {
 		try {
-			return this.unusedClasses.get();
+			return ClazzFishExecutor.get(this.unusedClasses);
 		} catch (InterruptedException e) {
 			LOG.warn("Was interrupted before got result from {}:", this.unusedClasses, e);
 			Thread.currentThread().interrupt();
@@ -751,7 +751,7 @@ public class ClasspathMonitor extends AbstractMonitor implements ClasspathMonito
 	@Override
 	public String[] getClasspathClasses() {
 		try {
-			return this.allClasspathClasses.get();
+			return ClazzFishExecutor.get(this.allClasspathClasses);
 		} catch (InterruptedException e) {
 			LOG.warn("Was interrupted before got result from {}:", this.allClasspathClasses, e);
 			Thread.currentThread().interrupt();
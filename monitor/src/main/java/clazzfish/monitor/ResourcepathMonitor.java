@@ -21,6 +21,7 @@ package clazzfish.monitor;
 import clazzfish.monitor.internal.DoubletDigger;
 import clazzfish.monitor.internal.ResourcepathDigger;
 import clazzfish.core.jmx.Description;
+import clazzfish.core.util.ClazzFishExecutor;
 import clazzfish.monitor.util.ArchivEntry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,7 +43,6 @@ import java.util.concurrent.*;
 public class ResourcepathMonitor extends AbstractMonitor implements ResourcepathMonitorMBean {
 
 	private static final Logger LOG = LoggerFactory.getLogger(ResourcepathMonitor.class);
-	private static final Executor EXECUTOR = Executors.newCachedThreadPool();
 	private static final ResourcepathMonitor INSTANCE;
 	private final ResourcepathDigger resourcepathDigger;
 	private final DoubletDigger doubletDigger;
@@ -65,7 +65,7 @@ public class ResourcepathMonitor extends AbstractMonitor implements Resourcepath
 	private FutureTask<String[]> getFutureResources() {
 		Callable<String[]> callable = this::getResourcesArray;
 		FutureTask<String[]> resources = new FutureTask<>(callable);
-		EXECUTOR.execute(resources);
+		ClazzFishExecutor.DEFAULT.execute(resources);
 		return resources;
 	}
 
@@ -118,7 +118,7 @@ public class ResourcepathMonitor extends AbstractMonitor implements Resourcepath
 	@Override
 	public String[] getResources() {
 		try {
-			return this.resources.get();
+			return ClazzFishExecutor.get(this.resources);
 		} catch (ExecutionException ex) {
 			LOG.warn("Cannot execute get of {}:", this.resources, ex);
 		} catch (InterruptedException ex) {
@@ -19,6 +19,7 @@ package clazzfish.monitor;
 
 import clazzfish.core.Config;
 import clazzfish.core.stat.ClazzStatistic;
+import clazzfish.core.util.ClazzFishExecutor;
 import clazzfish.monitor.jmx.AgentFinder;
 import clazzfish.monitor.spi.XPorter;
 import org.slf4j.Logger;
@@ -39,13 +40,15 @@ public final class Starter {
     private static URI dumpURI = Config.DEFAULT.getDumpURI();
 
     /**
-     * Registers all MBeans for monitoring the classpath and resources.
+     * Registers all MBeans for monitoring the classpath and resources
+     * (and the executor of the background tasks).
      * Also the {@link ClazzStatistic} is registered for importing and
      * exporting the statistics of loaded classes.
      */
     public static void start() {
         ClasspathMonitor.getInstance().registerMeAsMBean();
         ResourcepathMonitor.getInstance().registerMeAsMBean();
+        ClazzFishExecutor.DEFAULT.registerMeAsMBean();
         log.debug("ClazzFish library is started and ready.");
     }
 
@@ -64,6 +67,9 @@ public final class Starter {
         } else {
             ClazzStatistic statistic = ClazzStatistic.of(XPorter.createCsvXPorter(dumpURI));
             statistic.addMeAsShutdownHook();
+            if (!Config.NULL_URI.equals(dumpURI)) {
+                statistic.prewarm();
+            }
             log.trace("{} is registered as shutdown hook.", statistic);
         }
     }
@@ -102,6 +102,17 @@ public class BoringClassLoader extends ClassLoader {
         return Set.of(new ClassDiagnostic().getLoadedClasses());
     }
 
+    /**
+     * Gets the names of the loaded classes. Use this method if you need
+     * only the names because no class must be resolved for it.
+     *
+     * @return the names of all loaded classes
+     * @since 3.1
+     */
+    public Set<String> getLoadedClassnames() {
+        return ClassDiagnostic.getLoadedClassnamesFromVmClassHierarchy();
+    }
+
     @Override
     protected Class<?> findClass(String name) {
         Class<?> found = loadedClasses.get(name);
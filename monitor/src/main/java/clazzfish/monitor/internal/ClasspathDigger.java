@@ -386,14 +386,18 @@ public class ClasspathDigger extends Digger {
 	 * Checks if the given classname is loaded. Why does we use not Class as
 	 * parameter here? If you would allow a parameter of type "Class" this class
 	 * will be problably loaded before and this method will return always true!
+	 * <p>
+	 * Since 3.1 only the names of the loaded classes are compared, i.e. no
+	 * class must be resolved for it.
+	 * </p>
 	 *
 	 * @param classname
 	 *            name of the class
 	 * @return true if class is loaded
 	 */
 	public boolean isLoaded(final String classname) {
-		for (Class<?> loaded : getLoadedClasses()) {
-			if (classname.equals(loaded.getName())) {
+		for (String loaded : getLoadedClassnames()) {
+			if (classname.equals(loaded)) {
 				return true;
 			}
 		}
@@ -18,7 +18,7 @@
 
 package clazzfish.monitor.internal;
 
-import clazzfish.core.ResourceWalker;
+import clazzfish.core.ClasspathIndex;
 import clazzfish.monitor.exception.ClassloaderException;
 import clazzfish.monitor.util.Converter;
 import org.slf4j.Logger;
@@ -109,28 +109,35 @@ public class ResourcepathDigger extends ClasspathDigger {
     	return Converter.toURI(url);
     }
 
+    /**
+     * The elements of the classpath element are taken from the
+     * {@link ClasspathIndex#DEFAULT} which is shared with the other diggers.
+     * So each element is scanned only once.
+     */
     private static void addResources(final Set<String> resourceSet, final File path) {
         LOG.trace("Adding resources from {}...", path);
         try {
+            Collection<String> elements = ClasspathIndex.DEFAULT.getElements(path.getPath());
             if (path.isDirectory()) {
-                addResourcesFromDir(resourceSet, path);
+                addResourcesFromDir(resourceSet, elements);
             } else {
-                addElementsFromArchive(resourceSet, path);
+                addElementsFromArchive(resourceSet, elements);
             }
         } catch (IOException ioe) {
             LOG.warn("Cannot add classes from " + path.getAbsolutePath() + ":", ioe);
         }
     }
 
-    private static void addResourcesFromDir(final Set<String> resourceSet, final File dir) throws IOException {
-        ResourceWalker walker = new ResourceWalker(dir);
-        Collection<String> resources = walker.getResources();
-        resourceSet.addAll(resources);
+    private static void addResourcesFromDir(final Set<String> resourceSet, final Collection<String> elements) {
+        for (String resource : elements) {
+            if (!resource.endsWith(".class")) {
+                resourceSet.add(resource);
+            }
+        }
     }
     
-    private static void addElementsFromArchive(Set<String> resourceSet, File path) throws IOException {
-        Collection<String> allElements = readElementsFromNestedArchive(path);
-        for(String resource : allElements) {
+    private static void addElementsFromArchive(Set<String> resourceSet, Collection<String> elements) {
+        for(String resource : elements) {
             if (!resource.endsWith(".class") && !resource.endsWith("/")) {
                 resourceSet.add(resource.startsWith("/") ? resource : "/" + resource);
             }
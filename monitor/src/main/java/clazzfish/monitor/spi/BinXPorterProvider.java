@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 by Oli B.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express orimplied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * (c)reated 19.10.26 by oboehm
+ */
+package clazzfish.monitor.spi;
+
+import clazzfish.core.spi.BinXPorter;
+import clazzfish.core.spi.CsvXPorter;
+
+import java.net.URI;
+
+/**
+ * The BinXPorterProvider creates a {@link BinXPorter} for "bin" URIs
+ * (e.g. "bin:///tmp/dump"). With such a URI the statistics are stored in a
+ * compact binary format instead of CSV.
+ *
+ * @author oboehm
+ * @since 3.1 (19.10.26)
+ */
+public class BinXPorterProvider implements CsvXPorterProvider {
+
+    @Override
+    public CsvXPorter create(URI uri) {
+        return new BinXPorter(uri);
+    }
+
+    @Override
+    public boolean supports(String protocol) {
+        return "bin".equalsIgnoreCase(protocol);
+    }
+
+}
@@ -136,7 +136,7 @@ public final class Converter {
 		if (name == null) {
 			return null;
 		}
-		return name.replaceAll("\\.", "/") + ".class";
+		return Digger.classToResource(name);
 	}
 
 	/**
@@ -164,7 +164,7 @@ public final class Converter {
 		if (name == null) {
 			return null;
 		}
-		return name.replaceAll("\\.", "/");
+		return name.replace('.', '/');
 	}
 
 	/**
@@ -56,6 +56,12 @@ class BoringClassLoaderTest {
         assertThat(l2, hasItems(l1.toArray(new Class<?>[0])));
     }
 
+    @Test
+    void getLoadedClassnames() {
+        Set<String> classnames = classLoader.getLoadedClassnames();
+        assertThat(classnames, hasItem(getClass().getName()));
+    }
+
     @Test
     void getAllPackageNames() {
         Set<String> packageNames = classLoader.getAllPackageNames();
@@ -17,6 +17,7 @@
  */
 package clazzfish.monitor.spi;
 
+import clazzfish.core.spi.BinXPorter;
 import clazzfish.core.spi.CsvXPorter;
 import org.junit.jupiter.api.Test;
 
@@ -25,6 +26,7 @@ import java.net.URI;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 /**
@@ -50,4 +52,10 @@ class XPorterTest {
         assertNotNull(xporter);
     }
 
-}
\ No newline at end of file
+    @Test
+    void createBinXPorter() {
+        CsvXPorter xporter = XPorter.createCsvXPorter(URI.create("bin:///tmp/clazzfish"));
+        assertInstanceOf(BinXPorter.class, xporter);
+    }
+
+}